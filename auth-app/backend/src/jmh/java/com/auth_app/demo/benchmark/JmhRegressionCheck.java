@@ -0,0 +1,99 @@
+package com.auth_app.demo.benchmark;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (baseline vs current) and exits non-zero when any
+ * benchmark regressed by more than the allowed fraction.
+ * <p>
+ * Usage: {@code JmhRegressionCheck <baseline.json> <current.json> [maxRegression, default 0.10]}
+ * <p>
+ * For throughput modes a lower score is worse; for time-per-op modes a higher score is worse.
+ * Benchmarks present in only one of the files are reported but never fail the check.
+ * A missing baseline file skips the check: baselines are machine-specific, so none is
+ * committed; record one by copying a result file to the baseline path.
+ */
+public final class JmhRegressionCheck {
+
+    private JmhRegressionCheck() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhRegressionCheck <baseline.json> <current.json> [maxRegression]");
+            System.exit(2);
+        }
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.isFile()) {
+            System.out.printf("No baseline at %s, skipping the comparison. To record one: cp %s %s%n",
+                    baselineFile, args[1], baselineFile);
+            return;
+        }
+        Map<String, Result> baseline = read(baselineFile);
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : new TreeMap<>(current).entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now.score, "new");
+                continue;
+            }
+            double change = (now.score - before.score) / before.score;
+            double worsening = now.higherIsBetter() ? -change : change;
+            boolean regressed = worsening > maxRegression;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n",
+                    entry.getKey(), before.score, now.score, change * 100, regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", missing, baseline.get(missing).score, "-", "missing");
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, maxRegression * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) {
+        JsonNode root = JsonMapper.builder().build().readTree(file);
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asString());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Map<String, String> sorted = new TreeMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.properties().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    sorted.put(param.getKey(), param.getValue().asString());
+                }
+                key.append(sorted);
+            }
+            JsonNode primary = run.get("primaryMetric");
+            results.put(key.toString(), new Result(run.get("mode").asString(), primary.get("score").asDouble()));
+        }
+        return results;
+    }
+
+    private record Result(String mode, double score) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.config.JacksonConfig;
+import com.auth_app.demo.dtos.UserResDto;
+import com.auth_app.demo.enums.AuthProvider;
+import com.auth_app.demo.exceptions.model.ApiError;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization throughput of the hot response types, plain mapper vs the tuned
+ * application mapper. Run with the default {@code -prof gc} to see bytes allocated per op.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"plain", "tuned"})
+    public String mapper;
+
+    @Param({"100"})
+    public int listSize;
+
+    private JsonMapper jsonMapper;
+    private ApiResponse<UserResDto> single;
+    private ApiResponse<List<UserResDto>> list;
+    private ApiError error;
+
+    @Setup
+    public void setUp() {
+        JsonMapper.Builder builder = JsonMapper.builder();
+        if ("tuned".equals(mapper)) {
+            new JacksonConfig().blackbirdJsonMapperCustomizer().customize(builder);
+        }
+        jsonMapper = builder.build();
+
+        List<UserResDto> users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            users.add(user(i));
+        }
+        single = ApiResponse.success(users.get(0));
+        list = ApiResponse.success(users, "Users retrieved successfully");
+        error = ApiError.builder()
+                .status(404)
+                .code("RES_001")
+                .message("User not found with identifier: " + UUID.randomUUID())
+                .path("/api/users/" + UUID.randomUUID())
+                .requestId(UUID.randomUUID().toString())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] singleUser() {
+        return jsonMapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] userList() {
+        return jsonMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] apiError() {
+        return jsonMapper.writeValueAsBytes(error);
+    }
+
+    private static UserResDto user(int i) {
+        Instant now = Instant.now();
+        return UserResDto.builder()
+                .id(UUID.randomUUID())
+                .name("User " + i)
+                .email("user" + i + "@example.com")
+                .emailVerified(i % 2 == 0)
+                .provider(AuthProvider.LOCAL)
+                .roles(Set.of("USER"))
+                .createdAt(now)
+                .updatedAt(now)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.auth_app.demo.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost on the request thread for one request that fails with an expected business error:
+ * MDC setup and teardown by {@link RequestIdFilter} plus the warning from GlobalExceptionHandler.
+ * <p>
+ * Output goes to a discarding stream, so the numbers are formatting and hand-off cost, not I/O.
+ * {@code sync-boot-json} is Spring Boot's ECS encoder, for comparison with {@link JsonLogEncoder}.
+ * The async variants use the production overflow policy (never block), so once the writer thread
+ * falls behind, events are dropped rather than slowing the benchmark thread; run with
+ * {@code -prof gc} for allocation per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] [%X{requestId:-N/A}] [%X{traceId:-}] %-5level %logger{36} - %msg%n";
+
+    @Param({"sync-text", "sync-json", "sync-boot-json", "async-text", "async-json", "async-json-sampled"})
+    public String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private String requestId;
+    private String traceId;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.setEncoder(mode.endsWith("text") ? textEncoder()
+                : mode.endsWith("boot-json") ? bootJsonEncoder() : jsonEncoder());
+        output.start();
+
+        Appender<ILoggingEvent> appender = output;
+        if (mode.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(output);
+            async.start();
+            appender = async;
+        }
+        if (mode.endsWith("sampled")) {
+            LogSamplingFilter sampling = new LogSamplingFilter();
+            sampling.setContext(context);
+            sampling.setLoggers("com.auth_app.demo.exceptions.GlobalExceptionHandler");
+            sampling.setOneIn(20);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        logger = context.getLogger("com.auth_app.demo.exceptions.GlobalExceptionHandler");
+        requestId = UUID.randomUUID().toString();
+        traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void request() {
+        MDC.put(RequestIdFilter.MDC_REQUEST_ID_KEY, requestId);
+        MDC.put(RequestIdFilter.MDC_TRACE_ID_KEY, traceId);
+        try {
+            logger.warn("Business exception [{}] - Code: {}, Message: {}, RequestId: {}",
+                    "BusinessException", "USER_002", "Email already exists: someone@example.com", requestId);
+        } finally {
+            MDC.remove(RequestIdFilter.MDC_REQUEST_ID_KEY);
+            MDC.remove(RequestIdFilter.MDC_TRACE_ID_KEY);
+        }
+    }
+
+    private Encoder<ILoggingEvent> textEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        encoder.setContext(context);
+        encoder.setServiceName("auth-app");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> bootJsonEncoder() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("ecs");
+        encoder.start();
+        return encoder;
+    }
+}
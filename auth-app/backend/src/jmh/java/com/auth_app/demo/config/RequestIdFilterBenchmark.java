@@ -0,0 +1,44 @@
+package com.auth_app.demo.config;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead {@link RequestIdFilter} adds to every request, with and without an inbound X-Request-ID.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestIdFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    public boolean inboundHeader;
+
+    private RequestIdFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        filter = new RequestIdFilter();
+        request = new MockHttpServletRequest("GET", "/api/users");
+        if (inboundHeader) {
+            request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, "3f1c8e8a-6c3b-4d7e-9a51-2b0e7c1d4f60");
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.common.RoleSet;
+import com.auth_app.demo.enums.RouteAccess;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of one authorization decision as the rule table grows: Spring's matcher chain, which tries
+ * rules in order, versus {@link RouteAuthorizationManager}. The request hits the last specific
+ * rule, the worst case for the chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteAuthorizationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int rules;
+
+    private RequestMatcherDelegatingAuthorizationManager matcherChain;
+    private RouteAuthorizationManager compiled;
+    private MockHttpServletRequest request;
+    private RequestAuthorizationContext context;
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setUp() {
+        RequestMatcherDelegatingAuthorizationManager.Builder chain = RequestMatcherDelegatingAuthorizationManager.builder();
+        List<AuthorizationProperties.Rule> table = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            String pattern = "/api/resource" + i + "/{id}/items";
+            chain.add(PathPatternRequestMatcher.pathPattern(HttpMethod.GET, pattern),
+                    AuthorityAuthorizationManager.hasAnyAuthority("ADMIN"));
+            table.add(rule(pattern, List.of("GET"), List.of("ADMIN")));
+        }
+        chain.add(PathPatternRequestMatcher.pathPattern("/**"), AuthenticatedAuthorizationManager.authenticated());
+        table.add(rule("/**", List.of(), List.of()));
+
+        matcherChain = chain.build();
+        compiled = new RouteAuthorizationManager(table);
+        request = new MockHttpServletRequest("GET", "/api/resource" + (rules - 1) + "/42/items");
+        context = new RequestAuthorizationContext(request);
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+                "admin@example.com", null, RoleSet.of(List.of("USER", "ADMIN")).getAuthorities());
+        authentication = () -> admin;
+    }
+
+    @Benchmark
+    public AuthorizationResult matcherChain() {
+        return matcherChain.authorize(authentication, request);
+    }
+
+    @Benchmark
+    public AuthorizationResult compiledTrie() {
+        return compiled.authorize(authentication, context);
+    }
+
+    private static AuthorizationProperties.Rule rule(String pattern, List<String> methods, List<String> authorities) {
+        AuthorizationProperties.Rule rule = new AuthorizationProperties.Rule();
+        rule.setPattern(pattern);
+        rule.setMethods(methods);
+        rule.setAccess(RouteAccess.AUTHENTICATED);
+        rule.setAuthorities(authorities);
+        return rule;
+    }
+}
@@ -0,0 +1,45 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.entities.Role;
+import com.auth_app.demo.entities.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of resolving authorities from a loaded user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPrincipleBenchmark {
+
+    @Param({"1", "3"})
+    public int roleCount;
+
+    private UserPrinciple principle;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(new Role(i == 0 ? "USER" : "ROLE_" + i));
+        }
+        principle = new UserPrinciple(User.builder()
+                .email("user@example.com")
+                .roles(roles)
+                .build());
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principle.getAuthorities();
+    }
+}
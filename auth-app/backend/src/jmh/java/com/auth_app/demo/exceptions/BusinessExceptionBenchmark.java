@@ -0,0 +1,84 @@
+package com.auth_app.demo.exceptions;
+
+import com.auth_app.demo.config.ErrorProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of throwing an expected domain failure from deep in a call stack, against an ordinary
+ * exception that captures its stack trace, and of the full throw-and-handle path that a 404 takes.
+ * A request reaches the service layer through well over a hundred filter, proxy and
+ * dispatcher frames, so {@code depth} defaults to a comparable stack.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusinessExceptionBenchmark {
+
+    @Param({"150"})
+    public int depth;
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new ErrorProperties());
+        id = UUID.randomUUID();
+        request = new MockHttpServletRequest("GET", "/api/users/" + id);
+    }
+
+    @Benchmark
+    public EntityNotFoundException throwAndCatch() {
+        try {
+            return lookup(depth);
+        } catch (EntityNotFoundException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Baseline: the same throw with an exception that fills in its stack trace.
+     */
+    @Benchmark
+    public IllegalStateException throwAndCatchWithStackTrace() {
+        try {
+            fail(depth);
+            return null;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> throwAndHandle() {
+        try {
+            lookup(depth);
+            return null;
+        } catch (EntityNotFoundException e) {
+            return handler.handleEntityNotFoundException(e, request);
+        }
+    }
+
+    private EntityNotFoundException lookup(int remaining) {
+        if (remaining == 0) {
+            throw new EntityNotFoundException(ErrorCode.USER_NOT_FOUND, "User not found with id: " + id);
+        }
+        return lookup(remaining - 1);
+    }
+
+    private void fail(int remaining) {
+        if (remaining == 0) {
+            throw new IllegalStateException("User not found with id: " + id);
+        }
+        fail(remaining - 1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.auth_app.demo.exceptions;
+
+import com.auth_app.demo.config.ErrorProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an expected domain failure into an error response, in both output formats.
+ * Logging from the handler is switched off in src/jmh/resources/logback-test.xml.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean useProblemDetails;
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private BusinessException conflict;
+    private EntityNotFoundException notFound;
+
+    @Setup
+    public void setUp() {
+        ErrorProperties properties = new ErrorProperties();
+        properties.setUseProblemDetails(useProblemDetails);
+        handler = new GlobalExceptionHandler(properties);
+        request = new MockHttpServletRequest("GET", "/api/users/" + UUID.randomUUID());
+        conflict = new BusinessException(ErrorCode.USER_EMAIL_EXISTS, HttpStatus.CONFLICT, "Email already exists");
+        notFound = new EntityNotFoundException("User", UUID.randomUUID());
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> businessException() {
+        return handler.handleBusinessException(conflict, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> entityNotFound() {
+        return handler.handleEntityNotFoundException(notFound, request);
+    }
+}
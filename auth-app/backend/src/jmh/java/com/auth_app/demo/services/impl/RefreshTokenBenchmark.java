@@ -0,0 +1,64 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.OpaqueTokens;
+import com.auth_app.demo.config.JwtProperties;
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU side of the refresh endpoint: everything around the single rotate statement.
+ * {@code refresh} is the full per-call work (hash the presented token, generate and hash its
+ * successor, sign the access token); the others isolate each part.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefreshTokenBenchmark {
+
+    private static final List<String> ROLES = List.of("USER", "ADMIN");
+
+    private JwtServiceImpl jwtService;
+    private UUID userId;
+    private String presentedToken;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmark-secret-benchmark-secret-benchmark-secret");
+        jwtService = new JwtServiceImpl(properties);
+        userId = UUID.randomUUID();
+        presentedToken = OpaqueTokens.generate();
+        accessToken = jwtService.createAccessToken(userId, "user@example.com", ROLES);
+    }
+
+    @Benchmark
+    public String refresh() {
+        OpaqueTokens.hash(presentedToken);
+        OpaqueTokens.hash(OpaqueTokens.generate());
+        return jwtService.createAccessToken(userId, "user@example.com", ROLES);
+    }
+
+    @Benchmark
+    public String generateAndHashToken() {
+        return OpaqueTokens.hash(OpaqueTokens.generate());
+    }
+
+    @Benchmark
+    public String signAccessToken() {
+        return jwtService.createAccessToken(userId, "user@example.com", ROLES);
+    }
+
+    @Benchmark
+    public Optional<AccessTokenClaims> parseAccessToken() {
+        return jwtService.parseAccessToken(accessToken);
+    }
+}
@@ -0,0 +1,54 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.dtos.UserResDto;
+import com.auth_app.demo.entities.Role;
+import com.auth_app.demo.entities.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping a loaded {@link User} to the response DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    @Param({"1", "3"})
+    public int roleCount;
+
+    private UserServiceImpl service;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        service = new UserServiceImpl(null, null, null, null, null, null, null);
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(new Role(i == 0 ? "USER" : "ROLE_" + i));
+        }
+        Instant now = Instant.now();
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark User")
+                .email("user@example.com")
+                .roles(roles)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(3L)
+                .build();
+    }
+
+    @Benchmark
+    public UserResDto mapToResDto() {
+        return service.mapToResDto(user);
+    }
+}
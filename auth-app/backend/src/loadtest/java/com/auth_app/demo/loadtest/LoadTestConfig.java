@@ -0,0 +1,75 @@
+package com.auth_app.demo.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Reads {@code loadtest.properties}; any key can be overridden with a system property of the
+ * same name, e.g. {@code -Dloadtest.read-heavy.rate=500}.
+ */
+final class LoadTestConfig {
+
+    private final Properties properties = new Properties();
+
+    private LoadTestConfig() {
+    }
+
+    static LoadTestConfig load() {
+        LoadTestConfig config = new LoadTestConfig();
+        try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) {
+                config.properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return config;
+    }
+
+    String get(String key) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        if (value == null) {
+            throw new IllegalStateException("Missing load test property: " + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    /**
+     * Durations are written as {@code 30s}, {@code 2m} and so on.
+     */
+    Duration getDuration(String key) {
+        return Duration.parse("PT" + get(key).toUpperCase());
+    }
+
+    double rate(String scenario) {
+        return getDouble("loadtest." + scenario + ".rate");
+    }
+
+    Duration warmup(String scenario) {
+        return getDuration("loadtest." + scenario + ".warmup");
+    }
+
+    Duration duration(String scenario) {
+        return getDuration("loadtest." + scenario + ".duration");
+    }
+
+    Slo slo(String scenario) {
+        String prefix = "loadtest." + scenario + ".slo.";
+        return new Slo(
+                getDouble(prefix + "p99-ms"),
+                getDouble(prefix + "p999-ms"),
+                getDouble(prefix + "max-error-rate"),
+                getDouble(prefix + "min-throughput-ratio"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.auth_app.demo.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds the embedded database with set-based inserts.
+ * <p>
+ * Every account gets a hash from the application's encoder. A weaker hash would not make
+ * requests cheaper: on each successful login the provider re-encodes any hash below the
+ * configured strength, so the run would measure that upgrade path instead of normal traffic.
+ * Readers are the lookup targets and callers of the read-heavy mix; login users are
+ * reserved for the login storm.
+ */
+final class LoadTestSeeder {
+
+    static final String PASSWORD = "load-test-password";
+
+    record SeededUser(UUID id, String email) {
+    }
+
+    record SeededData(List<SeededUser> readers, List<SeededUser> loginUsers) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final PasswordEncoder productionEncoder;
+
+    LoadTestSeeder(JdbcTemplate jdbc, PasswordEncoder productionEncoder) {
+        this.jdbc = jdbc;
+        this.productionEncoder = productionEncoder;
+    }
+
+    SeededData seed(int readers, int loginUsers) {
+        jdbc.update("""
+                INSERT INTO roles (id, name, description) VALUES
+                    (gen_random_uuid(), 'USER', 'Default role'),
+                    (gen_random_uuid(), 'ADMIN', 'Administrator')
+                ON CONFLICT (name) DO NOTHING
+                """);
+
+        String passwordHash = productionEncoder.encode(PASSWORD);
+        insertUsers("reader", readers, passwordHash);
+        insertUsers("login", loginUsers, passwordHash);
+
+        jdbc.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u CROSS JOIN roles r WHERE r.name = 'USER'
+                ON CONFLICT DO NOTHING
+                """);
+        jdbc.execute("ANALYZE");
+
+        return new SeededData(load("reader"), load("login"));
+    }
+
+    private void insertUsers(String prefix, int count, String passwordHash) {
+        jdbc.update("""
+                INSERT INTO users (id, name, email, password, email_verified, is_active, provider,
+                                   created_at, updated_at, version)
+                SELECT gen_random_uuid(), ? || ' ' || g, ? || g || '@loadtest.example.com', ?, TRUE, TRUE,
+                       'LOCAL', now(), now(), 0
+                FROM generate_series(1, ?) AS g
+                """, prefix, prefix, passwordHash, count);
+    }
+
+    private List<SeededUser> load(String prefix) {
+        return jdbc.query("SELECT id, email FROM users WHERE email LIKE ?",
+                (rs, i) -> new SeededUser(rs.getObject("id", UUID.class), rs.getString("email")),
+                prefix + "%@loadtest.example.com");
+    }
+}
@@ -0,0 +1,129 @@
+package com.auth_app.demo.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a scenario at a fixed arrival rate (open model). Each request gets an intended start
+ * time on a fixed schedule and its latency is measured from that time, not from when it was
+ * actually sent. A stalled server therefore shows up as queueing delay in the percentiles
+ * instead of silently lowering the offered load (coordinated omission).
+ */
+final class OpenLoopRunner {
+
+    /** Requests beyond this many in flight are counted as dropped rather than queued without bound. */
+    private static final int MAX_IN_FLIGHT = 5_000;
+
+    private final HttpClient client;
+
+    OpenLoopRunner(HttpClient client) {
+        this.client = client;
+    }
+
+    ScenarioResult run(Scenario scenario) {
+        drive(scenario, scenario.warmup(), new Stats());
+
+        Stats stats = new Stats();
+        long started = System.nanoTime();
+        long offered = drive(scenario, scenario.duration(), stats);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, ScenarioResult.OperationStats> operations = new TreeMap<>();
+        stats.recorders.forEach((name, recorder) -> operations.put(name, new ScenarioResult.OperationStats(
+                stats.requests.get(name).sum(),
+                stats.errorsByOperation.get(name).sum(),
+                outcomes(stats.outcomes.get(name)),
+                recorder.getIntervalHistogram())));
+
+        return new ScenarioResult(scenario, offered, stats.completed.sum(), stats.errors.sum(),
+                stats.dropped.sum(), elapsedSeconds, stats.overall.getIntervalHistogram(), operations);
+    }
+
+    private long drive(Scenario scenario, Duration duration, Stats stats) {
+        long interval = (long) (1_000_000_000L / scenario.ratePerSecond());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        long offered = 0;
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * interval;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = scenario.mix().get();
+            offered++;
+            if (!inFlight.tryAcquire()) {
+                stats.dropped.increment();
+                continue;
+            }
+            send(operation, intendedStart, stats).whenComplete((ignored, failure) -> inFlight.release());
+        }
+        // Let the tail of this phase finish so it is not attributed to the next one
+        inFlight.acquireUninterruptibly(MAX_IN_FLIGHT);
+        return offered;
+    }
+
+    private CompletableFuture<Void> send(Operation operation, long intendedStart, Stats stats) {
+        return client.sendAsync(operation.request(), HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    long latencyMicros = (System.nanoTime() - intendedStart) / 1_000;
+                    if (failure != null) {
+                        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                        stats.record(operation.name(), latencyMicros, false, cause.getClass().getSimpleName());
+                    } else {
+                        stats.record(operation.name(), latencyMicros,
+                                operation.expectedStatuses().contains(response.statusCode()),
+                                String.valueOf(response.statusCode()));
+                    }
+                    return null;
+                });
+    }
+
+    private static Map<String, Long> outcomes(Map<String, LongAdder> counters) {
+        Map<String, Long> outcomes = new TreeMap<>();
+        counters.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+        return outcomes;
+    }
+
+    private static final class Stats {
+        final Recorder overall = new Recorder(3);
+        final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> errorsByOperation = new ConcurrentHashMap<>();
+        /** Status code (or exception type) counts per operation. */
+        final Map<String, Map<String, LongAdder>> outcomes = new ConcurrentHashMap<>();
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        void record(String operation, long latencyMicros, boolean ok, String outcome) {
+            overall.recordValue(latencyMicros);
+            recorders.computeIfAbsent(operation, k -> new Recorder(3)).recordValue(latencyMicros);
+            requests.computeIfAbsent(operation, k -> new LongAdder()).increment();
+            LongAdder operationErrors = errorsByOperation.computeIfAbsent(operation, k -> new LongAdder());
+            outcomes.computeIfAbsent(operation, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(outcome, k -> new LongAdder()).increment();
+            completed.increment();
+            if (!ok) {
+                errors.increment();
+                operationErrors.increment();
+            }
+        }
+    }
+}
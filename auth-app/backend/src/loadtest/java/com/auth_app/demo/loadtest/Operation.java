@@ -0,0 +1,14 @@
+package com.auth_app.demo.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Set;
+
+/**
+ * One request issued by a scenario, with the statuses that count as success for it.
+ */
+record Operation(String name, HttpRequest request, Set<Integer> expectedStatuses) {
+
+    static Operation of(String name, HttpRequest request, Integer... expectedStatuses) {
+        return new Operation(name, request, Set.of(expectedStatuses));
+    }
+}
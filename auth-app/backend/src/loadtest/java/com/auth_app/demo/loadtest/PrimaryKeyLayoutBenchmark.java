@@ -0,0 +1,102 @@
+package com.auth_app.demo.loadtest;
+
+import com.auth_app.demo.common.UuidV7;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput and primary-key index size with random (v4) versus time-ordered (v7) ids,
+ * against an embedded PostgreSQL.
+ * <p>
+ * Not part of the regular load test run (it is not a {@code *LoadTest}). Run it explicitly:
+ * {@code ./mvnw -Ploadtest test -Dtest=PrimaryKeyLayoutBenchmark [-Dloadtest.pk-layout.rows=...]}.
+ * Writes {@code target/loadtest/pk-layout.json} and fails if v7 does not produce the smaller index.
+ */
+class PrimaryKeyLayoutBenchmark {
+
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+    private static final LoadTestConfig CONFIG = LoadTestConfig.load();
+    private static final int BATCH_SIZE = 10_000;
+
+    record Result(String ids, long rows, double insertsPerSecond, long indexBytes, long tableBytes) {
+    }
+
+    @Test
+    void timeOrderedIdsKeepThePrimaryKeyCompact() throws Exception {
+        long rows = CONFIG.getInt("loadtest.pk-layout.rows");
+        List<Result> results;
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            results = List.of(
+                    run(connection, "v4", rows, UUID::randomUUID),
+                    run(connection, "v7", rows, UuidV7::generate));
+        }
+
+        for (Result result : results) {
+            System.out.printf("%-3s rows=%d inserts=%.0f/s pk-index=%d MB table=%d MB%n", result.ids(), result.rows(),
+                    result.insertsPerSecond(), result.indexBytes() >> 20, result.tableBytes() >> 20);
+        }
+        Files.createDirectories(REPORT_DIR);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("results", results);
+        JsonMapper.builder().build().writerWithDefaultPrettyPrinter()
+                .writeValue(REPORT_DIR.resolve("pk-layout.json").toFile(), report);
+
+        assertThat(results.get(1).indexBytes()).isLessThan(results.get(0).indexBytes());
+    }
+
+    /**
+     * Inserts {@code rows} rows shaped like the users key (uuid primary key plus a timestamp)
+     * in batches, with ids from {@code ids}, and measures the resulting relation sizes.
+     */
+    private static Result run(Connection connection, String name, long rows, Supplier<UUID> ids) throws Exception {
+        String table = "pk_" + name;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, created_at timestamptz NOT NULL)");
+        }
+
+        connection.setAutoCommit(false);
+        long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, created_at) VALUES (?, ?)")) {
+            Timestamp now = Timestamp.from(Instant.now());
+            for (long i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setTimestamp(2, now);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey'), "
+                     + "pg_relation_size('" + table + "')")) {
+            sizes.next();
+            return new Result(name, rows, rows / seconds, sizes.getLong(1), sizes.getLong(2));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.auth_app.demo.loadtest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * A workload: a fixed arrival rate held for a duration, with a generator for the request mix.
+ */
+record Scenario(String name, double ratePerSecond, Duration warmup, Duration duration,
+                Supplier<Operation> mix, Slo slo) {
+}
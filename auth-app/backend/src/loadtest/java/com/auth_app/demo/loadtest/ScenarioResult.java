@@ -0,0 +1,89 @@
+package com.auth_app.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one scenario run. Histograms hold latencies in microseconds, measured from each
+ * request's intended start time.
+ */
+record ScenarioResult(Scenario scenario, long offered, long completed, long errors, long dropped,
+                      double elapsedSeconds, Histogram overall, Map<String, OperationStats> operations) {
+
+    record OperationStats(long requests, long errors, Map<String, Long> outcomes, Histogram latency) {
+    }
+
+    double throughput() {
+        return completed / elapsedSeconds;
+    }
+
+    double errorRate() {
+        long attempted = completed + dropped;
+        return attempted == 0 ? 0 : (double) (errors + dropped) / attempted;
+    }
+
+    double percentileMillis(double percentile) {
+        return overall.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    List<String> violations() {
+        Slo slo = scenario.slo();
+        List<String> violations = new ArrayList<>();
+        if (percentileMillis(99.0) > slo.p99Millis()) {
+            violations.add(String.format("p99 %.2f ms > %.2f ms", percentileMillis(99.0), slo.p99Millis()));
+        }
+        if (percentileMillis(99.9) > slo.p999Millis()) {
+            violations.add(String.format("p99.9 %.2f ms > %.2f ms", percentileMillis(99.9), slo.p999Millis()));
+        }
+        if (errorRate() > slo.maxErrorRate()) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate(), slo.maxErrorRate()));
+        }
+        double ratio = offered == 0 ? 0 : (double) completed / offered;
+        if (ratio < slo.minThroughputRatio()) {
+            violations.add(String.format("completed/offered %.3f < %.3f", ratio, slo.minThroughputRatio()));
+        }
+        return violations;
+    }
+
+    Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("name", scenario.name());
+        report.put("offeredRate", scenario.ratePerSecond());
+        report.put("durationSeconds", elapsedSeconds);
+        report.put("offered", offered);
+        report.put("completed", completed);
+        report.put("errors", errors);
+        report.put("dropped", dropped);
+        report.put("throughput", throughput());
+        report.put("errorRate", errorRate());
+        report.put("latencyMs", latency(overall));
+
+        Map<String, Object> ops = new LinkedHashMap<>();
+        operations.forEach((name, stats) -> {
+            Map<String, Object> op = new LinkedHashMap<>();
+            op.put("requests", stats.requests());
+            op.put("errors", stats.errors());
+            op.put("outcomes", stats.outcomes());
+            op.put("latencyMs", latency(stats.latency()));
+            ops.put(name, op);
+        });
+        report.put("operations", ops);
+        report.put("slo", scenario.slo());
+        report.put("violations", violations());
+        return report;
+    }
+
+    private static Map<String, Double> latency(Histogram histogram) {
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("p50", histogram.getValueAtPercentile(50.0) / 1000.0);
+        latency.put("p90", histogram.getValueAtPercentile(90.0) / 1000.0);
+        latency.put("p99", histogram.getValueAtPercentile(99.0) / 1000.0);
+        latency.put("p99.9", histogram.getValueAtPercentile(99.9) / 1000.0);
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+        return latency;
+    }
+}
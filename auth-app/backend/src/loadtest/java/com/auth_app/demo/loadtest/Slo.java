@@ -0,0 +1,12 @@
+package com.auth_app.demo.loadtest;
+
+/**
+ * Service-level objectives for one scenario. A scenario passes only if every threshold holds.
+ *
+ * @param p99Millis          upper bound for the 99th percentile latency
+ * @param p999Millis         upper bound for the 99.9th percentile latency
+ * @param maxErrorRate       highest tolerated share of failed or unexpected responses
+ * @param minThroughputRatio lowest tolerated completed-requests / offered-requests ratio
+ */
+record Slo(double p99Millis, double p999Millis, double maxErrorRate, double minThroughputRatio) {
+}
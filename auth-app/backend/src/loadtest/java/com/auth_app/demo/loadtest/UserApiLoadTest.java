@@ -0,0 +1,238 @@
+package com.auth_app.demo.loadtest;
+
+import com.auth_app.demo.services.impl.EmailExistenceFilter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the users API against an embedded PostgreSQL.
+ * <p>
+ * Seeds the database, then runs each scenario at a fixed arrival rate and checks the recorded
+ * latency distribution and error rate against the SLOs in {@code loadtest.properties}.
+ * Writes {@code target/loadtest/report.json} and one HdrHistogram percentile file per scenario.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.com.auth_app.demo=INFO",
+                "logging.level.org.springframework.security=INFO",
+                "security.jwt.secret=load-test-secret-0123456789abcdef0123"
+        })
+class UserApiLoadTest {
+
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+    private static final LoadTestConfig CONFIG = LoadTestConfig.load();
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.builder().start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EmailExistenceFilter emailExistenceFilter;
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    @Test
+    void usersApiMeetsSlos() throws IOException {
+        LoadTestSeeder.SeededData data = new LoadTestSeeder(jdbcTemplate, passwordEncoder)
+                .seed(CONFIG.getInt("loadtest.seed.readers"), CONFIG.getInt("loadtest.seed.login-users"));
+        // Seeded rows bypass the service, so the email filter must be rebuilt to know them
+        emailExistenceFilter.rebuild();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        OpenLoopRunner runner = new OpenLoopRunner(client);
+
+        List<Scenario> scenarios = List.of(
+                scenario("read-heavy", () -> readHeavy(data)),
+                scenario("login-storm", () -> loginStorm(data)),
+                scenario("bulk-writes", () -> bulkWrites(data)));
+
+        List<ScenarioResult> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            ScenarioResult result = runner.run(scenario);
+            results.add(result);
+            printSummary(result);
+        }
+
+        writeReport(results);
+
+        List<String> violations = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            result.violations().forEach(v -> violations.add(result.scenario().name() + ": " + v));
+        }
+        assertThat(violations).as("SLO violations (see %s)", REPORT_DIR.resolve("report.json")).isEmpty();
+    }
+
+    // ========== Workloads ==========
+
+    private Scenario scenario(String name, java.util.function.Supplier<Operation> mix) {
+        return new Scenario(name, CONFIG.rate(name), CONFIG.warmup(name), CONFIG.duration(name), mix, CONFIG.slo(name));
+    }
+
+    private Operation readHeavy(LoadTestSeeder.SeededData data) {
+        LoadTestSeeder.SeededUser caller = pick(data.readers());
+        LoadTestSeeder.SeededUser target = pick(data.readers());
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 70) {
+            return Operation.of("get-by-id", get("/api/users/" + target.id(), caller).build(), 200);
+        }
+        if (roll < 90) {
+            return Operation.of("get-by-email", get("/api/users/email/" + target.email(), caller).build(), 200);
+        }
+        return Operation.of("conditional-get",
+                get("/api/users/" + target.id(), caller).header("If-None-Match", "\"" + target.id() + ":0\"").build(),
+                200, 304);
+    }
+
+    private Operation loginStorm(LoadTestSeeder.SeededData data) {
+        LoadTestSeeder.SeededUser user = pick(data.loginUsers());
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 80) {
+            return Operation.of("login-ok", get("/api/users/" + user.id(), user).build(), 200);
+        }
+        if (roll < 90) {
+            return Operation.of("login-bad-password", request("/api/users/" + user.id(), user.email(), "wrong-password")
+                    .GET().build(), 401);
+        }
+        return Operation.of("login-unknown-user", request("/api/users/" + user.id(),
+                "unknown-" + UUID.randomUUID() + "@loadtest.example.com", LoadTestSeeder.PASSWORD).GET().build(), 401);
+    }
+
+    private Operation bulkWrites(LoadTestSeeder.SeededData data) {
+        LoadTestSeeder.SeededUser caller = pick(data.readers());
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 50) {
+            long n = registrations.incrementAndGet();
+            String body = """
+                    {"name":"Registered %d","email":"registered-%d-%s@loadtest.example.com","password":"%s"}
+                    """.formatted(n, n, UUID.randomUUID(), LoadTestSeeder.PASSWORD);
+            return Operation.of("create-user", json("/api/users", caller, "POST", body), 201);
+        }
+        if (roll < 80) {
+            LoadTestSeeder.SeededUser target = pick(data.readers());
+            String body = "{\"name\":\"Renamed " + ThreadLocalRandom.current().nextInt(1_000_000) + "\"}";
+            return Operation.of("patch-user", json("/api/users/" + target.id(), caller, "PATCH", body), 200);
+        }
+        StringJoiner ids = new StringJoiner("\",\"", "{\"userIds\":[\"", "\"]}");
+        for (int i = 0; i < 100; i++) {
+            ids.add(pick(data.readers()).id().toString());
+        }
+        return Operation.of("bulk-grant-role", json("/api/users/roles/ADMIN/grant", caller, "POST", ids.toString()), 200);
+    }
+
+    // ========== HTTP helpers ==========
+
+    private HttpRequest.Builder get(String path, LoadTestSeeder.SeededUser caller) {
+        return request(path, caller.email(), LoadTestSeeder.PASSWORD).GET();
+    }
+
+    private HttpRequest json(String path, LoadTestSeeder.SeededUser caller, String method, String body) {
+        return request(path, caller.email(), LoadTestSeeder.PASSWORD)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String username, String password) {
+        String credentials = Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Basic " + credentials);
+    }
+
+    private static <T> T pick(List<T> items) {
+        return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+    }
+
+    // ========== Reporting ==========
+
+    private static void printSummary(ScenarioResult result) {
+        System.out.printf("%-12s offered=%.1f/s achieved=%.1f/s requests=%d errors=%d dropped=%d "
+                        + "p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms %s%n",
+                result.scenario().name(), result.scenario().ratePerSecond(), result.throughput(),
+                result.completed(), result.errors(), result.dropped(),
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                result.overall().getMaxValue() / 1000.0,
+                result.violations().isEmpty() ? "PASS" : "FAIL " + result.violations());
+    }
+
+    private static void writeReport(List<ScenarioResult> results) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        for (ScenarioResult result : results) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(REPORT_DIR.resolve(result.scenario().name() + ".hgrm")))) {
+                result.overall().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("passed", results.stream().allMatch(r -> r.violations().isEmpty()));
+        report.put("scenarios", results.stream().map(ScenarioResult::toReport).toList());
+        JsonMapper.builder().build()
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(REPORT_DIR.resolve("report.json").toFile(), report);
+    }
+}
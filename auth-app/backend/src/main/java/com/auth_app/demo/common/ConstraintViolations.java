@@ -0,0 +1,32 @@
+package com.auth_app.demo.common;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Identifies which database constraint a failed write violated, so that only the expected
+ * one is turned into a business error and anything else still surfaces as a failure.
+ */
+public final class ConstraintViolations {
+
+    /** Partial unique index on users(email) among non-deleted users. */
+    public static final String USERS_EMAIL_ACTIVE = "ux_users_email_active";
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Whether the exception was caused by a violation of the named constraint or index.
+     */
+    public static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return constraintName.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        // Native statements may not be translated by Hibernate; the driver message names the constraint
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains("\"" + constraintName + "\"");
+    }
+}
@@ -0,0 +1,92 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Entity tags for versioned resources.
+ * Format: {@code "<id>:<version>"} (strong). The id is part of the tag so that a
+ * resource addressed by a secondary key (e.g. email) never matches a different row.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Build the ETag header value for a resource id and version.
+     */
+    public static String of(UUID id, Long version) {
+        return "\"" + id + ":" + version + "\"";
+    }
+
+    /**
+     * Extract the versions an {@code If-Match} header accepts for the resource with this id.
+     * The header is a comma-separated list of entity tags, or {@code *}. Comparison is strong
+     * (RFC 9110 13.1.1): weak tags and tags of other ids are accepted syntax but match nothing.
+     *
+     * @return null when the header is absent or lists {@code *} (no precondition), otherwise
+     *         the versions of the matching tags, empty when none can match
+     */
+    public static Set<Long> parseVersions(String ifMatch, UUID id) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String expectedId = id.toString();
+        Set<Long> versions = new HashSet<>();
+        int length = ifMatch.length();
+        int position = 0;
+        while (position < length) {
+            char c = ifMatch.charAt(position);
+            if (c == ',' || c == ' ' || c == '\t') {
+                position++;
+                continue;
+            }
+            if (c == '*') {
+                return null;
+            }
+            boolean weak = ifMatch.startsWith("W/", position);
+            int open = weak ? position + 2 : position;
+            int close = open < length && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                throw malformed();
+            }
+            Long version = version(ifMatch.substring(open + 1, close), expectedId);
+            if (!weak && version != null) {
+                versions.add(version);
+            }
+            position = close + 1;
+            if (position < length && ifMatch.charAt(position) != ',' && ifMatch.charAt(position) != ' '
+                    && ifMatch.charAt(position) != '\t') {
+                throw malformed();
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Version of an opaque tag {@code <id>:<version>}, or null when it belongs to another id.
+     */
+    private static Long version(String tag, String expectedId) {
+        int separator = tag.lastIndexOf(':');
+        if (separator < 0) {
+            throw malformed();
+        }
+        if (!tag.substring(0, separator).equals(expectedId)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw malformed();
+        }
+    }
+
+    private static BusinessException malformed() {
+        return new BusinessException(ErrorCode.BAD_REQUEST, "Malformed If-Match header");
+    }
+}
@@ -0,0 +1,125 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.config.RequestIdFilter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+
+/**
+ * Java Flight Recorder events for the auth and user paths, under the "Auth App" category.
+ * <p>
+ * Every event carries the request id from the MDC, so the events of one slow request can be
+ * filtered out of a recording together. When no recording has the events enabled, {@code begin}
+ * and {@link AppEvent#commitWithRequestId} reduce to a flag check; callers populate costly fields
+ * only after {@code isEnabled()}.
+ */
+public final class JfrEvents {
+
+    public static final String PREFIX = "auth_app.";
+
+    private JfrEvents() {
+    }
+
+    @StackTrace(false)
+    public abstract static class AppEvent extends Event {
+
+        @Label("Request ID")
+        public String requestId;
+
+        /**
+         * Commits with the current request id, if the event passed its threshold.
+         */
+        public void commitWithRequestId() {
+            if (shouldCommit()) {
+                requestId = MDC.get(RequestIdFilter.MDC_REQUEST_ID_KEY);
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "HttpRequest")
+    @Label("HTTP Request")
+    @Category({"Auth App", "HTTP"})
+    @Description("One request, from the outermost filter until the response is complete")
+    public static final class HttpRequest extends AppEvent {
+
+        @Label("Method")
+        public String method;
+
+        @Label("Path")
+        public String path;
+
+        @Label("Status")
+        public int status;
+
+        @Label("Trace ID")
+        public String traceId;
+    }
+
+    @Name(PREFIX + "PasswordHash")
+    @Label("Password Hash")
+    @Category({"Auth App", "Security"})
+    @Description("Hashing a password for storage, or a dummy hash for an unknown user")
+    public static final class PasswordHash extends AppEvent {
+    }
+
+    @Name(PREFIX + "PasswordVerify")
+    @Label("Password Verify")
+    @Category({"Auth App", "Security"})
+    @Description("Checking a presented password against a stored hash")
+    public static final class PasswordVerify extends AppEvent {
+
+        @Label("Matched")
+        public boolean matched;
+    }
+
+    @Name(PREFIX + "UserLookup")
+    @Label("User Lookup")
+    @Category({"Auth App", "Users"})
+    public static final class UserLookup extends AppEvent {
+
+        @Label("Key")
+        @Description("What the user was looked up by: login, id or email")
+        public String key;
+
+        @Label("Found")
+        public boolean found;
+
+        @Label("Filtered")
+        @Description("Rejected by the email existence filter without a query")
+        public boolean filtered;
+    }
+
+    @Name(PREFIX + "RoleResolution")
+    @Label("Role Resolution")
+    @Category({"Auth App", "Users"})
+    public static final class RoleResolution extends AppEvent {
+
+        @Label("Source")
+        @Description("user (the roles of a loaded user), token (access token claims) or name (a role id lookup)")
+        public String source;
+
+        @Label("Roles")
+        public String roles;
+    }
+
+    @Name(PREFIX + "ErrorHandled")
+    @Label("Error Handled")
+    @Category({"Auth App", "HTTP"})
+    @Description("Building the error response for an exception in GlobalExceptionHandler")
+    public static final class ErrorHandled extends AppEvent {
+
+        @Label("Exception")
+        public Class<?> exceptionClass;
+
+        @Label("Code")
+        public String code;
+
+        @Label("Status")
+        public int status;
+    }
+}
@@ -0,0 +1,244 @@
+package com.auth_app.demo.common;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, interned set of role names backed by a bitmask.
+ * <p>
+ * Each distinct role name gets one bit the first time it is seen, so membership is a bit test
+ * and a user's roles are a single {@code long}. Only a handful of role combinations exist, and
+ * every combination is represented by one shared instance whose name set and authority list are
+ * built once. Loading, mapping and authenticating a user therefore allocate nothing for roles.
+ */
+public final class RoleSet {
+
+    /** Width of the mask; registering more distinct role names than this fails. */
+    public static final int MAX_ROLES = Long.SIZE;
+
+    private static final ConcurrentHashMap<String, RoleAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final RoleAuthority[] BY_BIT = new RoleAuthority[MAX_ROLES];
+
+    /** Every combination seen so far, sorted by mask; replaced wholesale when one is added. */
+    private static volatile Interned interned = new Interned(new long[0], new RoleSet[0]);
+
+    public static final RoleSet EMPTY = ofMask(0L);
+
+    private final long mask;
+    private final Set<String> names;
+    private final List<GrantedAuthority> authorities;
+
+    private RoleSet(long mask) {
+        this.mask = mask;
+        Set<String> roleNames = new LinkedHashSet<>();
+        List<GrantedAuthority> roleAuthorities = new ArrayList<>();
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            RoleAuthority authority = BY_BIT[Long.numberOfTrailingZeros(rest)];
+            if (authority == null) {
+                throw new IllegalArgumentException("Unregistered role bit in mask " + Long.toHexString(mask));
+            }
+            roleNames.add(authority.getAuthority());
+            roleAuthorities.add(authority);
+        }
+        this.names = Collections.unmodifiableSet(roleNames);
+        this.authorities = Collections.unmodifiableList(roleAuthorities);
+    }
+
+    // ========== Lookup ==========
+
+    /**
+     * Bit of a role name, registering the name if it is new. Names come from the roles table
+     * (directly or through tokens we signed), so the registry stays as small as that table.
+     */
+    public static long bit(String name) {
+        RoleAuthority authority = AUTHORITIES.get(name);
+        return (authority != null ? authority : register(name)).bit;
+    }
+
+    /**
+     * Bit of an already registered role name, or 0. Never registers, so it is safe for
+     * names that did not come from the database.
+     */
+    public static long bitIfKnown(String name) {
+        RoleAuthority authority = AUTHORITIES.get(name);
+        return authority != null ? authority.bit : 0L;
+    }
+
+    /**
+     * The shared instance for a mask. A binary search over a handful of entries; unlike a
+     * map keyed by {@code Long} it does not box the mask.
+     */
+    public static RoleSet ofMask(long mask) {
+        Interned current = interned;
+        int index = Arrays.binarySearch(current.masks, mask);
+        return index >= 0 ? current.sets[index] : intern(mask);
+    }
+
+    public static RoleSet of(Collection<String> names) {
+        long mask = 0L;
+        for (String name : names) {
+            mask |= bit(name);
+        }
+        return ofMask(mask);
+    }
+
+    /**
+     * From the comma-separated form produced by {@code string_agg(r.name, ',')}; null is empty.
+     */
+    public static RoleSet parse(String commaSeparated) {
+        if (commaSeparated == null || commaSeparated.isEmpty()) {
+            return EMPTY;
+        }
+        long mask = 0L;
+        int start = 0;
+        int comma;
+        while ((comma = commaSeparated.indexOf(',', start)) >= 0) {
+            mask |= bit(commaSeparated.substring(start, comma));
+            start = comma + 1;
+        }
+        return ofMask(mask | bit(commaSeparated.substring(start)));
+    }
+
+    /**
+     * Roles of an authenticated principal.
+     */
+    public static RoleSet ofAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        return ofMask(maskOf(authorities));
+    }
+
+    /**
+     * Mask of an authenticated principal's roles. Authorities handed out by this class carry
+     * their bit; anything else is looked up by name without being registered.
+     */
+    public static long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            mask |= authority instanceof RoleAuthority role ? role.bit : bitIfKnown(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    private static synchronized RoleAuthority register(String name) {
+        RoleAuthority existing = AUTHORITIES.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int index = AUTHORITIES.size();
+        if (index >= MAX_ROLES) {
+            throw new IllegalStateException("More than " + MAX_ROLES + " distinct roles: " + name);
+        }
+        RoleAuthority authority = new RoleAuthority(name, 1L << index);
+        BY_BIT[index] = authority;
+        AUTHORITIES.put(name, authority);
+        return authority;
+    }
+
+    private static synchronized RoleSet intern(long mask) {
+        Interned current = interned;
+        int index = Arrays.binarySearch(current.masks, mask);
+        if (index >= 0) {
+            return current.sets[index];
+        }
+        int at = -index - 1;
+        int size = current.masks.length;
+        long[] masks = new long[size + 1];
+        RoleSet[] sets = new RoleSet[size + 1];
+        System.arraycopy(current.masks, 0, masks, 0, at);
+        System.arraycopy(current.sets, 0, sets, 0, at);
+        System.arraycopy(current.masks, at, masks, at + 1, size - at);
+        System.arraycopy(current.sets, at, sets, at + 1, size - at);
+        RoleSet set = new RoleSet(mask);
+        masks[at] = mask;
+        sets[at] = set;
+        interned = new Interned(masks, sets);
+        return set;
+    }
+
+    // ========== Queries ==========
+
+    public long mask() {
+        return mask;
+    }
+
+    public boolean contains(String name) {
+        return (mask & bitIfKnown(name)) != 0;
+    }
+
+    /**
+     * True when at least one of the roles in {@code required} is held.
+     */
+    public boolean containsAny(long required) {
+        return (mask & required) != 0;
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /** Unmodifiable, shared by every user with the same roles. */
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /** Unmodifiable, shared by every user with the same roles. */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return names.toString();
+    }
+
+    /**
+     * Interned authority for one role name. Deserialized copies resolve to the interned instance.
+     */
+    static final class RoleAuthority implements GrantedAuthority {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final transient long bit;
+
+        private RoleAuthority(String name, long bit) {
+            this.name = name;
+            this.bit = bit;
+        }
+
+        @Override
+        public String getAuthority() {
+            return name;
+        }
+
+        @Serial
+        private Object readResolve() {
+            RoleAuthority authority = AUTHORITIES.get(name);
+            return authority != null ? authority : register(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Interned {
+        private final long[] masks;
+        private final RoleSet[] sets;
+
+        private Interned(long[] masks, RoleSet[] sets) {
+            this.masks = masks;
+            this.sets = sets;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a ranked search: the rank and id of the last row returned.
+ * Results are ordered by rank descending, then id ascending, so the next page starts
+ * strictly after this pair. Clients receive it as an opaque base64url string.
+ */
+public final class SearchCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /** Position before every row: any finite rank compares below it. */
+    public static final SearchCursor FIRST = new SearchCursor(Double.POSITIVE_INFINITY, new UUID(0, 0));
+
+    private final double rank;
+    private final UUID id;
+
+    public SearchCursor(double rank, UUID id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Opaque form handed to clients. {@link Double#toString} round-trips exactly, so the
+     * rank compares equal to the one the database computes for the same row.
+     */
+    public String encode() {
+        return ENCODER.encodeToString((rank + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a cursor from a previous response; null or blank means the first page.
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            double rank = Double.parseDouble(value.substring(0, separator));
+            if (!Double.isFinite(rank)) {
+                throw new IllegalArgumentException("Non-finite rank");
+            }
+            return new SearchCursor(rank, UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "Malformed search cursor");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one.
+ * <p>
+ * The first caller for a key runs the loader on its own thread. Callers arriving while that
+ * load is in flight wait for its outcome instead of loading again: they receive the same value,
+ * or the same exception. Nothing is cached; once the load completes the next caller loads afresh.
+ * Waiters give up after the timeout with a 503 {@link BusinessException}; the load itself
+ * carries on for its own caller.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Returns the loader's result for the key, sharing a load already in flight.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(key, existing);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (Throwable e) {
+            failures.increment();
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // Rethrow what the loader threw so waiters fail exactly like the caller that loaded
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Timed out waiting for a concurrent load of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Interrupted while waiting for a concurrent load of " + key);
+        }
+    }
+
+    /**
+     * Detaches every load in flight: callers arriving from now on start a new load, while
+     * callers already waiting still receive the outcome of the one they joined.
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    // ========== Statistics ==========
+
+    /** Loads actually run. */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /** Calls that shared another caller's load instead of running their own. */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /** Loads that threw. Their waiters received the same exception. */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /** Waiters that gave up before the shared load completed. */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /** Keys with a load in flight right now. */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
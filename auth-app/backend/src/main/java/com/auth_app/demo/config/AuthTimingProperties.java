@@ -0,0 +1,52 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.enums.UnknownUserTiming;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for timing uniformity of logins with unknown usernames.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.unknown-user")
+public class AuthTimingProperties {
+
+    /**
+     * Strategy used when the username does not exist.
+     */
+    private UnknownUserTiming timing = UnknownUserTiming.CALIBRATED_DELAY;
+
+    /**
+     * Number of recent known-user authentication durations kept for sampling delays.
+     */
+    private int sampleSize = 256;
+
+    /**
+     * Password checks run at startup to seed the samples before real logins arrive.
+     */
+    private int calibrationRuns = 5;
+
+    public UnknownUserTiming getTiming() {
+        return timing;
+    }
+
+    public void setTiming(UnknownUserTiming timing) {
+        this.timing = timing;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    public int getCalibrationRuns() {
+        return calibrationRuns;
+    }
+
+    public void setCalibrationRuns(int calibrationRuns) {
+        this.calibrationRuns = calibrationRuns;
+    }
+}
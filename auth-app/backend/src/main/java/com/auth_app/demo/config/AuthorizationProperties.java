@@ -0,0 +1,84 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.enums.RouteAccess;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for request authorization: the route rule table compiled by
+ * {@link RouteAuthorizationManager}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.authorization")
+public class AuthorizationProperties {
+
+    /**
+     * Rules in priority order; the first rule matching path and method decides.
+     * Requests matched by no rule are denied, so the table should end with a catch-all.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static class Rule {
+
+        /**
+         * Path pattern: literal segments, {@code *} or {@code {name}} for exactly one segment,
+         * and a trailing {@code **} for any number of segments.
+         */
+        private String pattern;
+
+        /**
+         * HTTP methods the rule applies to; empty means every method.
+         */
+        private List<String> methods = new ArrayList<>();
+
+        private RouteAccess access = RouteAccess.AUTHENTICATED;
+
+        /**
+         * For authenticated rules, the caller must hold at least one of these; empty means any caller.
+         */
+        private List<String> authorities = new ArrayList<>();
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public RouteAccess getAccess() {
+            return access;
+        }
+
+        public void setAccess(RouteAccess access) {
+            this.access = access;
+        }
+
+        public List<String> getAuthorities() {
+            return authorities;
+        }
+
+        public void setAuthorities(List<String> authorities) {
+            this.authorities = authorities;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.auth_app.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers unknown usernames after a delay drawn from the durations of recent real
+ * authentications, instead of computing a dummy hash.
+ * <p>
+ * Durations are kept in a fixed-size ring buffer, so the delay follows the current latency
+ * distribution including load-induced variance. The buffer is seeded at startup with a few
+ * measured password checks. Waiting consumes no CPU, so credential-stuffing traffic against
+ * unknown emails no longer costs a hash per attempt.
+ * <p>
+ * The wait is a sleep on the request thread and relies on {@code spring.threads.virtual.enabled}:
+ * a sleeping virtual thread only parks its continuation, while a platform thread would hold a
+ * Tomcat worker for about one password check, moving the exhaustion from CPU to the worker
+ * pool. A warning is logged the first time the delay runs on a platform thread.
+ */
+public class CalibratedDelayTimingStrategy implements UnknownUserTimingStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(CalibratedDelayTimingStrategy.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibrationPassword";
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicBoolean platformThreadWarned = new AtomicBoolean();
+
+    public CalibratedDelayTimingStrategy(PasswordEncoder passwordEncoder, int sampleSize, int calibrationRuns) {
+        if (sampleSize <= 0 || calibrationRuns <= 0) {
+            throw new IllegalArgumentException("sampleSize and calibrationRuns must be positive");
+        }
+        this.samples = new AtomicLongArray(sampleSize);
+        String hash = passwordEncoder.encode(CALIBRATION_PASSWORD);
+        for (int i = 0; i < calibrationRuns; i++) {
+            long start = System.nanoTime();
+            passwordEncoder.matches(CALIBRATION_PASSWORD, hash);
+            recordKnownUser(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void recordKnownUser(long elapsedNanos) {
+        long slot = recorded.getAndIncrement();
+        samples.set((int) (slot % samples.length()), elapsedNanos);
+    }
+
+    @Override
+    public void onUnknownUser(String presentedPassword, long elapsedNanos) {
+        long remaining = sampleNanos() - elapsedNanos;
+        if (remaining > 0) {
+            if (!Thread.currentThread().isVirtual() && platformThreadWarned.compareAndSet(false, true)) {
+                log.warn("Unknown-user logins wait on platform threads; enable spring.threads.virtual.enabled "
+                        + "so the delay does not hold request workers");
+            }
+            pause(remaining);
+        }
+    }
+
+    /**
+     * Sleeps on the calling thread; overridden in tests to observe the delays without waiting.
+     */
+    void pause(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Picks one of the recorded durations uniformly at random.
+     */
+    long sampleNanos() {
+        int filled = (int) Math.min(recorded.get(), samples.length());
+        return samples.get(ThreadLocalRandom.current().nextInt(filled));
+    }
+}
@@ -0,0 +1,27 @@
+package com.auth_app.demo.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Spring Security's behaviour: check the presented password against a dummy hash of the
+ * same strength, spending the same CPU as a real check.
+ */
+public class DummyHashTimingStrategy implements UnknownUserTimingStrategy {
+
+    private static final String DUMMY_PASSWORD = "userNotFoundPassword";
+
+    private final PasswordEncoder passwordEncoder;
+    private final String dummyHash;
+
+    public DummyHashTimingStrategy(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+        this.dummyHash = passwordEncoder.encode(DUMMY_PASSWORD);
+    }
+
+    @Override
+    public void onUnknownUser(String presentedPassword, long elapsedNanos) {
+        if (presentedPassword != null) {
+            passwordEncoder.matches(presentedPassword, dummyHash);
+        }
+    }
+}
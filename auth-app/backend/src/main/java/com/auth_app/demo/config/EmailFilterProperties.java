@@ -0,0 +1,81 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory email existence filter.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.email-filter")
+public class EmailFilterProperties {
+
+    /**
+     * Whether lookups consult the filter before the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of registered emails the filter is sized for. Memory is about
+     * 1.2 bytes per entry at a 1% false-positive rate (12 MB for 10 million).
+     */
+    private long expectedInsertions = 10_000_000L;
+
+    /**
+     * Target false-positive rate once the filter holds expectedInsertions emails.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How often the filter is rebuilt from the database, dropping deleted and changed emails.
+     */
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    /**
+     * How often emails registered or changed on other instances are pulled into the filter.
+     * Negatives are not trusted while the last successful sync is older than three intervals.
+     */
+    private Duration syncInterval = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+}
@@ -0,0 +1,20 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.services.VerificationMailSender;
+import com.auth_app.demo.services.impl.LoggingVerificationMailSender;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EmailVerificationConfig {
+
+    /**
+     * Logs verification links. Define another {@link VerificationMailSender} bean to send real mail.
+     */
+    @Bean
+    @ConditionalOnMissingBean(VerificationMailSender.class)
+    public VerificationMailSender verificationMailSender() {
+        return new LoggingVerificationMailSender();
+    }
+}
@@ -0,0 +1,145 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for email verification and the outbox dispatcher.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.email-verification")
+public class EmailVerificationProperties {
+
+    /**
+     * Whether new local accounts are sent a verification email.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Lifetime of a verification link.
+     */
+    private Duration tokenTtl = Duration.ofHours(24);
+
+    /**
+     * How often expired verification tokens are deleted.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * Link sent to the user; the token is appended.
+     */
+    private String linkPrefix = "http://localhost:8081/api/auth/verify-email?token=";
+
+    /**
+     * How often the dispatcher looks for due emails.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Emails leased per claim statement.
+     */
+    private int batchSize = 50;
+
+    /**
+     * How long a claimed email is reserved for the dispatcher sending it. Must exceed the time
+     * to send a whole batch; an instance that dies mid-batch leaves its emails due after this.
+     */
+    private Duration lease = Duration.ofMinutes(5);
+
+    /**
+     * Delivery attempts before an email is left as failed.
+     */
+    private int maxAttempts = 8;
+
+    /**
+     * Delay before the first retry; doubled on every further attempt.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound for the retry delay.
+     */
+    private Duration maxRetryBackoff = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTokenTtl() {
+        return tokenTtl;
+    }
+
+    public void setTokenTtl(Duration tokenTtl) {
+        this.tokenTtl = tokenTtl;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public String getLinkPrefix() {
+        return linkPrefix;
+    }
+
+    public void setLinkPrefix(String linkPrefix) {
+        this.linkPrefix = linkPrefix;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(Duration lease) {
+        this.lease = lease;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+}
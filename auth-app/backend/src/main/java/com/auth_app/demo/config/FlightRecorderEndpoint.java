@@ -0,0 +1,44 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.dtos.FlightRecordingStatus;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.services.impl.FlightRecordingManager;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/jfr}: the state of the on-demand flight recording. {@code POST /actuator/jfr/start},
+ * {@code /dump} and {@code /stop} control it; dumps are written on the server, see
+ * {@link FlightRecorderProperties}. Restricted to ADMIN by the route rules.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private final FlightRecordingManager recordings;
+
+    public FlightRecorderEndpoint(FlightRecordingManager recordings) {
+        this.recordings = recordings;
+    }
+
+    @ReadOperation
+    public FlightRecordingStatus status() {
+        return recordings.status();
+    }
+
+    @WriteOperation
+    public FlightRecordingStatus control(@Selector String action) {
+        return switch (action) {
+            case "start" -> recordings.start();
+            case "dump" -> recordings.dump();
+            case "stop" -> recordings.stop();
+            default -> throw new BusinessException(ErrorCode.BAD_REQUEST, HttpStatus.BAD_REQUEST,
+                    "Unknown action '" + action + "', expected start, dump or stop");
+        };
+    }
+}
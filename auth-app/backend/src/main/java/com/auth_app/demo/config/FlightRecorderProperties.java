@@ -0,0 +1,95 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for on-demand flight recordings started through {@code /actuator/jfr}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.jfr")
+public class FlightRecorderProperties {
+
+    /**
+     * Where dumps are written.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "auth-app-jfr");
+
+    /**
+     * JDK settings to record with: "default" (about 1% overhead), "profile" (about 2%, adds
+     * allocation and lock profiling) or the path of a .jfc file.
+     */
+    private String settings = "profile";
+
+    /**
+     * A recording that is never stopped stops itself after this long.
+     */
+    private Duration maxDuration = Duration.ofMinutes(30);
+
+    /**
+     * Oldest data kept in the recording; a dump covers at most this window.
+     */
+    private Duration maxAge = Duration.ofMinutes(10);
+
+    /**
+     * Most data kept in the recording, and so the largest a dump can be.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(200);
+
+    /**
+     * Dumps kept in the directory; older ones are deleted.
+     */
+    private int maxFiles = 5;
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(int maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+}
@@ -0,0 +1,28 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.repositories.IdempotencyKeyRepository;
+import com.auth_app.demo.services.IdempotencyStore;
+import com.auth_app.demo.services.impl.InMemoryIdempotencyStore;
+import com.auth_app.demo.services.impl.PostgresIdempotencyStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Store behind {@link IdempotencyFilter}, chosen by {@code app.idempotency.storage}.
+     */
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties,
+                                             IdempotencyKeyRepository repository,
+                                             PlatformTransactionManager transactionManager) {
+        return switch (properties.getStorage()) {
+            case MEMORY -> new InMemoryIdempotencyStore(
+                    properties.getTtl(), properties.getLockTimeout(), properties.getMaxEntries());
+            case POSTGRES -> new PostgresIdempotencyStore(
+                    repository, transactionManager, properties.getTtl(), properties.getLockTimeout());
+        };
+    }
+}
@@ -0,0 +1,263 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.dtos.IdempotencyClaim;
+import com.auth_app.demo.dtos.StoredResponse;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.services.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes a user mutation carrying an {@code Idempotency-Key} header at most once per key.
+ * <p>
+ * Only authenticated callers and only the routes in {@link #ROUTES} (user creation and role
+ * changes) are deduplicated; other requests pass through untouched. Responses of
+ * {@code /api/auth/**} carry tokens and must never be replayed: an anonymous key is shared by
+ * every anonymous caller, and a refresh request's body may be empty, so a stored login or refresh
+ * response would be handed to whoever sends the same key next.
+ * <p>
+ * The key is scoped to the caller, method and path. The first request with a key claims it and
+ * runs; its response (any status below 500) is stored. Retries get that response replayed, with
+ * {@code Idempotent-Replayed: true}, without reaching the controller. Duplicates arriving while
+ * the first is still running wait for it. Reusing a key with a different body is rejected with
+ * 422, and a duplicate that waits longer than the wait timeout gets 409.
+ * <p>
+ * Not a bean: it runs inside the security filter chain, after authorization, so forbidden
+ * requests never touch the store and the caller is known.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /** Deduplicated routes by method, matched against the path within the application. */
+    private static final Map<String, List<PathPattern>> ROUTES = Map.of(
+            "POST", patterns("/api/users", "/api/users/{id}/roles/{roleName}",
+                    "/api/users/roles/{roleName}/grant", "/api/users/roles/{roleName}/revoke"),
+            "DELETE", patterns("/api/users/{id}/roles/{roleName}"));
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final UrlPathHelper pathHelper = UrlPathHelper.defaultInstance;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties,
+                             HandlerExceptionResolver exceptionResolver) {
+        this.store = store;
+        this.properties = properties;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !isDeduplicated(request)
+                || !trustResolver.isAuthenticated(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private boolean isDeduplicated(HttpServletRequest request) {
+        List<PathPattern> patterns = ROUTES.get(request.getMethod());
+        if (patterns == null) {
+            return false;
+        }
+        PathContainer path = PathContainer.parsePath(pathHelper.getPathWithinApplication(request));
+        return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private static List<PathPattern> patterns(String... patterns) {
+        return Arrays.stream(patterns).map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        byte[] body;
+        IdempotencyClaim claim;
+        try {
+            String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+                throw new BusinessException(ErrorCode.VALIDATION_FAILED,
+                        IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            }
+            body = readBody(request);
+            claim = store.claim(scopedKey(request, idempotencyKey), sha256(body), properties.getWaitTimeout());
+            switch (claim.getOutcome()) {
+                case REPLAY -> {
+                    replay(claim.getResponse(), response);
+                    return;
+                }
+                case MISMATCH -> throw new BusinessException(ErrorCode.IDEMPOTENCY_KEY_REUSED, HttpStatus.UNPROCESSABLE_CONTENT);
+                case IN_PROGRESS -> throw new BusinessException(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS, HttpStatus.CONFLICT);
+                case ACQUIRED -> {
+                    // Executed below, outside this try: its exceptions belong to the rest of the chain
+                }
+            }
+        } catch (BusinessException e) {
+            exceptionResolver.resolveException(request, response, null, e);
+            return;
+        }
+
+        execute(claim, new CachedBodyRequest(request, body), response, filterChain);
+    }
+
+    private void execute(IdempotencyClaim claim, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, captured);
+            int status = captured.getStatus();
+            if (status < 500 && captured.getContentSize() <= properties.getMaxBodySize().toBytes()) {
+                try {
+                    store.complete(claim, new StoredResponse(status, captured.getContentType(), captured.getContentAsByteArray()));
+                    stored = true;
+                } catch (RuntimeException e) {
+                    // The request itself succeeded; a retry will execute again
+                    log.warn("Could not store idempotent response for {} {}", request.getMethod(), request.getRequestURI(), e);
+                }
+            }
+        } finally {
+            if (!stored) {
+                store.release(claim);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        int limit = (int) properties.getMaxBodySize().toBytes();
+        byte[] body = request.getInputStream().readNBytes(limit + 1);
+        if (body.length > limit) {
+            throw new BusinessException(ErrorCode.VALIDATION_FAILED, HttpStatus.CONTENT_TOO_LARGE,
+                    "Requests with an " + IDEMPOTENCY_KEY_HEADER + " are limited to " + limit + " bytes");
+        }
+        return body;
+    }
+
+    /**
+     * Digest of caller, method, path and key, so one client's key never matches another's request.
+     */
+    private static String scopedKey(HttpServletRequest request, String idempotencyKey) {
+        // Authenticated: shouldNotFilter lets no other caller through
+        String caller = SecurityContextHolder.getContext().getAuthentication().getName();
+        String scope = caller + '\n' + request.getMethod() + '\n' + request.getRequestURI() + '\n'
+                + (request.getQueryString() != null ? request.getQueryString() : "") + '\n' + idempotencyKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256(scope.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Serves the body already read for fingerprinting to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Synchronous reads only");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.enums.IdempotencyStorage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for {@code Idempotency-Key} handling.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether user mutations carrying an Idempotency-Key are deduplicated (see IdempotencyFilter).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Where stored responses are kept.
+     */
+    private IdempotencyStorage storage = IdempotencyStorage.MEMORY;
+
+    /**
+     * How long a completed response is replayed for retries with the same key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long an execution holds its key. A request still running after this (or one whose
+     * instance died) no longer blocks retries.
+     */
+    private Duration lockTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long a duplicate waits for the first execution before failing with 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Largest request or response body handled. Larger requests are rejected; larger responses
+     * are sent but not stored.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    /**
+     * Keys kept by the in-memory store. When full, requests run without deduplication.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * How often expired keys are removed.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public IdempotencyStorage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(IdempotencyStorage storage) {
+        this.storage = storage;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getLockTimeout() {
+        return lockTimeout;
+    }
+
+    public void setLockTimeout(Duration lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+
+    public void setWaitTimeout(Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
@@ -0,0 +1,20 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.jackson.autoconfigure.JsonMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Tunes the application's JSON mapper for the hot response types
+ * ({@code ApiResponse}, {@code UserResDto}, {@code ApiError}).
+ * Blackbird replaces reflective getter/setter calls with generated lambdas.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public JsonMapperBuilderCustomizer blackbirdJsonMapperCustomizer() {
+        return builder -> builder.addModule(new BlackbirdModule());
+    }
+}
@@ -0,0 +1,42 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.common.JfrEvents;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Emits {@link JfrEvents.PasswordHash} and {@link JfrEvents.PasswordVerify} around a delegate
+ * encoder, so every hash in the app (registration, login, the unknown-user timing strategies)
+ * shows up in a flight recording.
+ */
+public class JfrPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public JfrPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        JfrEvents.PasswordHash event = new JfrEvents.PasswordHash();
+        event.begin();
+        String encoded = delegate.encode(rawPassword);
+        event.commitWithRequestId();
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        JfrEvents.PasswordVerify event = new JfrEvents.PasswordVerify();
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.matched = matched;
+        event.commitWithRequestId();
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,107 @@
+package com.auth_app.demo.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import ch.qos.logback.core.util.CachingDateFormatter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Writes each event as one line of JSON with ECS field names: {@code @timestamp}, {@code log.level},
+ * {@code log.logger}, {@code process.thread.name}, {@code service.name}, {@code message}, every MDC
+ * entry (requestId, traceId) as a top-level field, and {@code error.*} for a throwable.
+ * <p>
+ * Spring Boot's StructuredLogEncoder allocates tens of kilobytes per event; this one builds the line
+ * in a reused per-thread buffer, so an event costs little more than its output bytes.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(512));
+    private final CachingDateFormatter timestampFormatter =
+            new CachingDateFormatter("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", ZoneOffset.UTC);
+    private String serviceName;
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        StringBuilder json = buffers.get();
+        json.setLength(0);
+
+        json.append("{\"@timestamp\":\"").append(timestampFormatter.format(event.getTimeStamp())).append('"');
+        json.append(",\"log.level\":\"").append(event.getLevel().levelStr).append('"');
+        field(json, "log.logger", event.getLoggerName());
+        field(json, "process.thread.name", event.getThreadName());
+        if (serviceName != null && !serviceName.isEmpty()) {
+            field(json, "service.name", serviceName);
+        }
+        field(json, "message", event.getFormattedMessage());
+        for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+            field(json, entry.getKey(), entry.getValue());
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "error.type", throwable.getClassName());
+            field(json, "error.message", throwable.getMessage());
+            field(json, "error.stack_trace", ThrowableProxyUtil.asString(throwable));
+        }
+        json.append("}\n");
+
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        if (json.capacity() > MAX_RETAINED_BUFFER) {
+            // One huge stack trace should not pin its buffer to the thread forever
+            buffers.remove();
+        }
+        return bytes;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"");
+        escape(json, name);
+        json.append("\":\"");
+        escape(json, value);
+        json.append('"');
+    }
+
+    static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.common.JfrEvents;
+import com.auth_app.demo.common.RoleSet;
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import com.auth_app.demo.services.JwtService;
+import com.auth_app.demo.services.TokenRevocationService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying a Bearer access token.
+ * <p>
+ * Not a bean: it is added to the security filter chain only, so the servlet container does not
+ * run it a second time. Invalid or revoked tokens leave the request unauthenticated.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final SecurityContextHolderStrategy contextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public JwtAuthenticationFilter(JwtService jwtService, TokenRevocationService tokenRevocationService) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            jwtService.parseAccessToken(header.substring(BEARER_PREFIX.length()).trim())
+                    .filter(claims -> !tokenRevocationService.isRevoked(
+                            claims.getUserId(), claims.getJti(), claims.getIssuedAtEpochMilli()))
+                    .ifPresent(this::authenticate);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(AccessTokenClaims claims) {
+        JfrEvents.RoleResolution event = new JfrEvents.RoleResolution();
+        event.begin();
+        RoleSet roles = RoleSet.of(claims.getRoles());
+        if (event.isEnabled()) {
+            event.source = "token";
+            event.roles = roles.toString();
+            event.commitWithRequestId();
+        }
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                claims.getEmail(), null, roles.getAuthorities());
+        authentication.setDetails(claims);
+        SecurityContext context = contextHolderStrategy.createEmptyContext();
+        context.setAuthentication(authentication);
+        contextHolderStrategy.setContext(context);
+    }
+}
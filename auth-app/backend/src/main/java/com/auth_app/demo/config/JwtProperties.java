@@ -0,0 +1,126 @@
+package com.auth_app.demo.config;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration properties for JWT access tokens and refresh-token cookies.
+ * Validated at startup, so a missing or short secret stops the application with a binding error.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "security.jwt")
+@Validated
+public class JwtProperties {
+
+    /** HS256 needs a key of at least 256 bits. */
+    static final int MIN_SECRET_BYTES = 32;
+
+    /**
+     * HMAC signing secret (JWT_SECRET); at least 32 bytes in UTF-8.
+     */
+    @NotBlank(message = "security.jwt.secret is not set; provide it through the JWT_SECRET environment variable")
+    private String secret;
+
+    /**
+     * Value of the iss claim, required on every incoming token.
+     */
+    private String issuer = "auth-app";
+
+    /**
+     * Lifetime of access tokens.
+     */
+    private long accessTtlSeconds = 900;
+
+    /**
+     * Lifetime of refresh tokens; each rotation issues a token with a fresh lifetime.
+     */
+    private long refreshTtlSeconds = 86_400;
+
+    /**
+     * Name of the cookie carrying the refresh token.
+     */
+    private String refreshTokenCookieName = "refreshToken";
+
+    private boolean cookieSecure = true;
+
+    private boolean cookieHttpOnly = true;
+
+    /**
+     * SameSite attribute of the refresh-token cookie (lax, strict or none).
+     */
+    private String cookieSameSite = "lax";
+
+    public String getSecret() {
+        return secret;
+    }
+
+    @AssertTrue(message = "security.jwt.secret must be at least " + MIN_SECRET_BYTES + " bytes")
+    boolean isSecretLongEnough() {
+        return secret == null || secret.getBytes(StandardCharsets.UTF_8).length >= MIN_SECRET_BYTES;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public void setIssuer(String issuer) {
+        this.issuer = issuer;
+    }
+
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
+
+    public void setAccessTtlSeconds(long accessTtlSeconds) {
+        this.accessTtlSeconds = accessTtlSeconds;
+    }
+
+    public long getRefreshTtlSeconds() {
+        return refreshTtlSeconds;
+    }
+
+    public void setRefreshTtlSeconds(long refreshTtlSeconds) {
+        this.refreshTtlSeconds = refreshTtlSeconds;
+    }
+
+    public String getRefreshTokenCookieName() {
+        return refreshTokenCookieName;
+    }
+
+    public void setRefreshTokenCookieName(String refreshTokenCookieName) {
+        this.refreshTokenCookieName = refreshTokenCookieName;
+    }
+
+    public boolean isCookieSecure() {
+        return cookieSecure;
+    }
+
+    public void setCookieSecure(boolean cookieSecure) {
+        this.cookieSecure = cookieSecure;
+    }
+
+    public boolean isCookieHttpOnly() {
+        return cookieHttpOnly;
+    }
+
+    public void setCookieHttpOnly(boolean cookieHttpOnly) {
+        this.cookieHttpOnly = cookieHttpOnly;
+    }
+
+    public String getCookieSameSite() {
+        return cookieSameSite;
+    }
+
+    public void setCookieSameSite(String cookieSameSite) {
+        this.cookieSameSite = cookieSameSite;
+    }
+}
@@ -0,0 +1,66 @@
+package com.auth_app.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one in every {@code oneIn} events of the listed loggers, for noisy paths such as
+ * the warning logged for every expected business failure.
+ * <p>
+ * Only events at or below {@code maxLevel} (WARN by default) are sampled, so errors are always
+ * kept. Loggers are matched by exact name. Configured in logback-spring.xml; a turbo filter runs
+ * before the event is created, so a dropped event costs one map lookup and one increment.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private String loggers = "";
+    private int oneIn = 1;
+    private Level maxLevel = Level.WARN;
+    private Map<String, AtomicLong> counters = Map.of();
+
+    public void setLoggers(String loggers) {
+        this.loggers = loggers;
+    }
+
+    public void setOneIn(int oneIn) {
+        this.oneIn = oneIn;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.WARN);
+    }
+
+    @Override
+    public void start() {
+        if (oneIn < 1) {
+            addError("oneIn must be at least 1, was " + oneIn);
+            return;
+        }
+        counters = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableMap(name -> name, name -> new AtomicLong(), (a, b) -> a));
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (oneIn == 1 || level == null || level.toInt() > maxLevel.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        AtomicLong counter = counters.get(logger.getName());
+        // Events the logger's level drops anyway must not use up the sample
+        if (counter == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % oneIn == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,248 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.services.impl.SqlStatementMetrics;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the pool so that connection checkouts, statement executions and result-set rows are
+ * recorded in {@link SqlStatementMetrics}.
+ * <p>
+ * Connections, statements and result sets are JDK proxies over the pool's own objects; unwrap
+ * and every other call go straight to the target. The metrics bean is looked up on first use,
+ * because the DataSource is created before the metrics infrastructure.
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+
+    private final Supplier<SqlStatementMetrics> metricsLookup;
+    private volatile SqlStatementMetrics metrics;
+
+    public MeteredDataSource(DataSource target, Supplier<SqlStatementMetrics> metricsLookup) {
+        super(target);
+        this.metricsLookup = metricsLookup;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        return wrap(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        return wrap(connection, start);
+    }
+
+    private Connection wrap(Connection connection, long start) {
+        SqlStatementMetrics metrics = metrics();
+        metrics.recordConnectionAcquire(System.nanoTime() - start);
+        return proxy(Connection.class, new ConnectionHandler(connection, metrics));
+    }
+
+    private SqlStatementMetrics metrics() {
+        SqlStatementMetrics resolved = metrics;
+        if (resolved == null) {
+            resolved = metricsLookup.get();
+            metrics = resolved;
+        }
+        return resolved;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MeteredDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Invokes on the target, passing SQLExceptions and runtime exceptions through unwrapped.
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxy identity for equals/hashCode; null when the method is not one of them.
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> args != null && args.length == 1 && method.getParameterTypes()[0] == Object.class
+                    ? (Object) (proxy == args[0]) : null;
+            case "hashCode" -> method.getParameterCount() == 0 ? System.identityHashCode(proxy) : null;
+            default -> null;
+        };
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final SqlStatementMetrics metrics;
+
+        private ConnectionHandler(Connection target, SqlStatementMetrics metrics) {
+            this.target = target;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = MeteredDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, metrics, metrics.shapeOf((String) args[0])));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, metrics, metrics.shapeOf((String) args[0])));
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, metrics, null));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final SqlStatementMetrics metrics;
+        /** Fixed for prepared statements; taken from each execute call or addBatch otherwise. */
+        private SqlStatementMetrics.Shape shape;
+
+        private StatementHandler(Statement target, SqlStatementMetrics metrics, SqlStatementMetrics.Shape shape) {
+            this.target = target;
+            this.metrics = metrics;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1 && shape == null) {
+                shape = metrics.shapeOf((String) args[0]);
+            }
+            if (!name.startsWith("execute")) {
+                Object result = MeteredDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") && result != null ? wrapResultSet((ResultSet) result) : result;
+            }
+
+            SqlStatementMetrics.Shape executed = args != null && args.length > 0 && args[0] instanceof String sql
+                    ? metrics.shapeOf(sql) : shape;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = MeteredDataSource.invoke(target, method, args);
+            } finally {
+                // Failed statements are timed too: a statement cancelled by a timeout is the slowest of all
+                if (executed != null) {
+                    metrics.recordExecution(executed, System.nanoTime() - start);
+                }
+            }
+            if (executed == null) {
+                return result;
+            }
+            switch (result) {
+                case null -> {
+                }
+                case ResultSet resultSet -> {
+                    return proxy(ResultSet.class, new ResultSetHandler(resultSet, metrics, executed));
+                }
+                case Integer affected -> metrics.recordRows(executed, Math.max(affected, 0));
+                case Long affected -> metrics.recordRows(executed, Math.max(affected, 0));
+                case int[] batch -> metrics.recordRows(executed, affectedRows(batch));
+                case long[] batch -> {
+                    long affected = 0;
+                    for (long count : batch) {
+                        affected += Math.max(count, 0);
+                    }
+                    metrics.recordRows(executed, affected);
+                }
+                default -> {
+                    // execute(): the rows, if any, are read through getResultSet
+                    shape = executed;
+                }
+            }
+            return result;
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet) {
+            return shape == null ? resultSet : proxy(ResultSet.class, new ResultSetHandler(resultSet, metrics, shape));
+        }
+
+        private static long affectedRows(int[] batch) {
+            long affected = 0;
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) counts as one row
+                affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+            return affected;
+        }
+    }
+
+    /**
+     * Counts rows as they are read and records the total once, on close.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final SqlStatementMetrics metrics;
+        private final SqlStatementMetrics.Shape shape;
+        private long rows;
+        private boolean recorded;
+
+        private ResultSetHandler(ResultSet target, SqlStatementMetrics metrics, SqlStatementMetrics.Shape shape) {
+            this.target = target;
+            this.metrics = metrics;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            switch (method.getName()) {
+                case "next" -> {
+                    boolean hasRow = target.next();
+                    if (hasRow) {
+                        rows++;
+                    }
+                    return hasRow;
+                }
+                case "close" -> {
+                    if (!recorded) {
+                        recorded = true;
+                        metrics.recordRows(shape, rows);
+                    }
+                    target.close();
+                    return null;
+                }
+                default -> {
+                    return MeteredDataSource.invoke(target, method, args);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.auth_app.demo.config;
 
+import com.auth_app.demo.common.JfrEvents;
 import com.auth_app.demo.entities.User;
 import com.auth_app.demo.repositories.UserRepository;
+import com.auth_app.demo.services.impl.EmailExistenceFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,11 +14,25 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class MyUserDetailService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final EmailExistenceFilter emailExistenceFilter;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
+        JfrEvents.UserLookup event = new JfrEvents.UserLookup();
+        event.key = "login";
+        event.begin();
+        // Unknown emails (most credential-stuffing traffic) are rejected without a query
+        if (!emailExistenceFilter.mightExist(username)) {
+            event.filtered = true;
+            event.commitWithRequestId();
+            throw new UsernameNotFoundException("User not found with email: " + username);
+        }
+        User user = userRepository.findByEmail(username).orElse(null);
+        event.found = user != null;
+        event.commitWithRequestId();
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + username);
+        }
         return new UserPrinciple(user);
     }
 }
@@ -0,0 +1,125 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.enums.AuthProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for OIDC login with external identity providers.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.oauth2")
+public class OAuth2Properties {
+
+    /**
+     * Identity providers whose ID tokens are accepted. Providers without an entry are rejected.
+     */
+    private Map<AuthProvider, Provider> providers = new EnumMap<>(AuthProvider.class);
+
+    /**
+     * How often every provider's JWKS is re-fetched in the background.
+     */
+    private Duration jwksRefreshInterval = Duration.ofMinutes(15);
+
+    /**
+     * Minimum time between two fetches of the same JWKS triggered by an unknown key id.
+     */
+    private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * Connect and read timeout for JWKS fetches.
+     */
+    private Duration jwksFetchTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Allowed clock skew when checking exp, iat and nbf.
+     */
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    public Map<AuthProvider, Provider> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Map<AuthProvider, Provider> providers) {
+        this.providers = providers;
+    }
+
+    public Duration getJwksRefreshInterval() {
+        return jwksRefreshInterval;
+    }
+
+    public void setJwksRefreshInterval(Duration jwksRefreshInterval) {
+        this.jwksRefreshInterval = jwksRefreshInterval;
+    }
+
+    public Duration getJwksMinRefreshInterval() {
+        return jwksMinRefreshInterval;
+    }
+
+    public void setJwksMinRefreshInterval(Duration jwksMinRefreshInterval) {
+        this.jwksMinRefreshInterval = jwksMinRefreshInterval;
+    }
+
+    public Duration getJwksFetchTimeout() {
+        return jwksFetchTimeout;
+    }
+
+    public void setJwksFetchTimeout(Duration jwksFetchTimeout) {
+        this.jwksFetchTimeout = jwksFetchTimeout;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    public void setClockSkew(Duration clockSkew) {
+        this.clockSkew = clockSkew;
+    }
+
+    public static class Provider {
+
+        /**
+         * Required value of the iss claim.
+         */
+        private String issuer;
+
+        /**
+         * Location of the provider's signing keys.
+         */
+        private URI jwksUri;
+
+        /**
+         * OAuth client id registered with the provider; required in the aud claim.
+         */
+        private String clientId;
+
+        public String getIssuer() {
+            return issuer;
+        }
+
+        public void setIssuer(String issuer) {
+            this.issuer = issuer;
+        }
+
+        public URI getJwksUri() {
+            return jwksUri;
+        }
+
+        public void setJwksUri(URI jwksUri) {
+            this.jwksUri = jwksUri;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the refresh-token purge job.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.refresh-tokens")
+public class RefreshTokenProperties {
+
+    /**
+     * How often expired refresh tokens are deleted.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(15);
+
+    /**
+     * Rows deleted per statement (and per transaction) by the purge job.
+     */
+    private int purgeBatchSize = 5_000;
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public int getPurgeBatchSize() {
+        return purgeBatchSize;
+    }
+
+    public void setPurgeBatchSize(int purgeBatchSize) {
+        this.purgeBatchSize = purgeBatchSize;
+    }
+}
@@ -1,5 +1,6 @@
 package com.auth_app.demo.config;
 
+import com.auth_app.demo.common.JfrEvents;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,7 +18,9 @@ import java.util.UUID;
  * Filter to handle Request ID / Correlation ID for distributed tracing.
  * - Reads X-Request-ID from inbound request if present, otherwise generates UUID.
  * - Puts requestId into MDC for logging.
+ * - Puts the trace id of an inbound W3C traceparent header into MDC as traceId.
  * - Returns requestId in response headers.
+ * - Records each request as a {@link JfrEvents.HttpRequest} flight recorder event.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -25,6 +28,8 @@ public class RequestIdFilter extends OncePerRequestFilter {
 
     public static final String REQUEST_ID_HEADER = "X-Request-ID";
     public static final String MDC_REQUEST_ID_KEY = "requestId";
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String MDC_TRACE_ID_KEY = "traceId";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -39,16 +44,50 @@ public class RequestIdFilter extends OncePerRequestFilter {
 
         // Store in MDC for logging
         MDC.put(MDC_REQUEST_ID_KEY, requestId);
-        
+        String traceId = traceIdOf(request.getHeader(TRACEPARENT_HEADER));
+        if (traceId != null) {
+            MDC.put(MDC_TRACE_ID_KEY, traceId);
+        }
+
         // Add to response headers
         response.setHeader(REQUEST_ID_HEADER, requestId);
 
+        JfrEvents.HttpRequest event = new JfrEvents.HttpRequest();
+        event.begin();
         try {
             filterChain.doFilter(request, response);
         } finally {
+            if (event.isEnabled()) {
+                event.method = request.getMethod();
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.traceId = traceId;
+                event.commitWithRequestId();
+            }
             // Clean up MDC to prevent memory leaks in thread pools
             MDC.remove(MDC_REQUEST_ID_KEY);
+            MDC.remove(MDC_TRACE_ID_KEY);
+        }
+    }
+
+    /**
+     * The trace-id field of a traceparent header ({@code 00-<32 hex>-<16 hex>-<2 hex>}),
+     * or null when the header is absent or malformed.
+     */
+    static String traceIdOf(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-') {
+            return null;
+        }
+        boolean allZero = true;
+        for (int i = 3; i < 35; i++) {
+            char c = traceparent.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return null;
+            }
+            allZero &= c == '0';
         }
+        return allZero ? null : traceparent.substring(3, 35);
     }
 
     /**
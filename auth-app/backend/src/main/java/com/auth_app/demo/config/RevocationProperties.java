@@ -0,0 +1,54 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for token revocation.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.revocation")
+public class RevocationProperties {
+
+    /**
+     * Longest lifetime of any issued token. Watermarks older than this cover
+     * only expired tokens and are pruned.
+     */
+    private Duration maxTokenLifetime = Duration.ofDays(1);
+
+    /**
+     * How often revocations written by other instances are pulled into memory.
+     */
+    private Duration syncInterval = Duration.ofSeconds(30);
+
+    /**
+     * How often expired deny-list entries and stale watermarks are removed.
+     */
+    private Duration pruneInterval = Duration.ofMinutes(10);
+
+    public Duration getMaxTokenLifetime() {
+        return maxTokenLifetime;
+    }
+
+    public void setMaxTokenLifetime(Duration maxTokenLifetime) {
+        this.maxTokenLifetime = maxTokenLifetime;
+    }
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public Duration getPruneInterval() {
+        return pruneInterval;
+    }
+
+    public void setPruneInterval(Duration pruneInterval) {
+        this.pruneInterval = pruneInterval;
+    }
+}
@@ -0,0 +1,188 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.common.RoleSet;
+import com.auth_app.demo.enums.RouteAccess;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Authorizes requests against the rule table in {@link AuthorizationProperties}, compiled at
+ * startup into a trie of path segments.
+ * <p>
+ * Spring's {@code requestMatchers} chain tries every rule in turn. Here a decision walks the
+ * request path once, however many rules there are, and then tests the caller's role bitmask
+ * against the rule's. Rule order keeps its usual meaning: when several patterns match, the one
+ * declared first wins, exactly as with {@code requestMatchers}. Unmatched requests are denied.
+ */
+public class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final List<String> METHODS = List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+    /** Slot for rules without a method restriction; also the only slot other methods consult. */
+    private static final int ANY_METHOD = METHODS.size();
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Node root = new Node();
+    private final RouteAccess[] access;
+    private final long[] requiredMasks;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final UrlPathHelper pathHelper = UrlPathHelper.defaultInstance;
+
+    public RouteAuthorizationManager(List<AuthorizationProperties.Rule> rules) {
+        this.access = new RouteAccess[rules.size()];
+        this.requiredMasks = new long[rules.size()];
+        for (int index = 0; index < rules.size(); index++) {
+            AuthorizationProperties.Rule rule = rules.get(index);
+            access[index] = rule.getAccess();
+            for (String authority : rule.getAuthorities()) {
+                requiredMasks[index] |= RoleSet.bit(authority);
+            }
+            if (rule.getAccess() != RouteAccess.AUTHENTICATED && !rule.getAuthorities().isEmpty()) {
+                throw new IllegalArgumentException("Authorities only apply to authenticated rules: " + rule.getPattern());
+            }
+            add(rule, index);
+        }
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication,
+                                         RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        int rule = match(pathHelper.getPathWithinApplication(request), request.getMethod());
+        if (rule == NO_MATCH) {
+            return DENIED;
+        }
+        return switch (access[rule]) {
+            case PERMIT_ALL -> GRANTED;
+            case DENY_ALL -> DENIED;
+            case AUTHENTICATED -> {
+                Authentication caller = authentication.get();
+                if (!trustResolver.isAuthenticated(caller)) {
+                    yield DENIED;
+                }
+                long required = requiredMasks[rule];
+                yield required == 0 || (RoleSet.maskOf(caller.getAuthorities()) & required) != 0 ? GRANTED : DENIED;
+            }
+        };
+    }
+
+    /**
+     * Index of the first declared rule matching the path and method, or {@link #NO_MATCH}.
+     * Package-private for tests and the benchmark.
+     */
+    int match(String path, String method) {
+        int slot = METHODS.indexOf(method);
+        return root.match(path, 0, slot < 0 ? ANY_METHOD : slot, NO_MATCH);
+    }
+
+    // ========== Compilation ==========
+
+    private void add(AuthorizationProperties.Rule rule, int index) {
+        String[] segments = Arrays.stream(rule.getPattern().split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toArray(String[]::new);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + rule.getPattern());
+                }
+                node.anyDepth = assign(node.anyDepth, rule, index);
+                return;
+            }
+            if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                node = node.wildcard != null ? node.wildcard : (node.wildcard = new Node());
+            } else if (segment.contains("*") || segment.contains("{")) {
+                throw new IllegalArgumentException("Unsupported pattern segment '" + segment + "': " + rule.getPattern());
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.exact = assign(node.exact, rule, index);
+    }
+
+    /**
+     * Records the rule in each method slot it applies to, unless an earlier rule already holds the slot.
+     */
+    private static int[] assign(int[] slots, AuthorizationProperties.Rule rule, int index) {
+        if (slots == null) {
+            slots = new int[ANY_METHOD + 1];
+            Arrays.fill(slots, NO_MATCH);
+        }
+        if (rule.getMethods().isEmpty()) {
+            slots[ANY_METHOD] = Math.min(slots[ANY_METHOD], index);
+        } else {
+            for (String method : rule.getMethods()) {
+                int slot = METHODS.indexOf(method.toUpperCase(Locale.ROOT));
+                if (slot < 0) {
+                    throw new IllegalArgumentException("Unknown HTTP method " + method + ": " + rule.getPattern());
+                }
+                slots[slot] = Math.min(slots[slot], index);
+            }
+        }
+        return slots;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        /** Rules whose pattern ends at this node, per method slot. */
+        private int[] exact;
+        /** Rules whose pattern ends with {@code **} here, per method slot. */
+        private int[] anyDepth;
+
+        /**
+         * Lowest rule index matching {@code path} from {@code from} on. Every branch is explored
+         * (a literal and a wildcard can both match), but the work depends on the path depth only.
+         */
+        int match(String path, int from, int slot, int best) {
+            best = lowest(anyDepth, slot, best);
+            int start = from;
+            while (start < path.length() && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start == path.length()) {
+                return lowest(exact, slot, best);
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (!literals.isEmpty()) {
+                Node literal = literals.get(path.substring(start, end));
+                if (literal != null) {
+                    best = literal.match(path, end, slot, best);
+                }
+            }
+            if (wildcard != null) {
+                best = wildcard.match(path, end, slot, best);
+            }
+            return best;
+        }
+
+        private static int lowest(int[] slots, int slot, int best) {
+            if (slots == null) {
+                return best;
+            }
+            return Math.min(best, Math.min(slots[slot], slots[ANY_METHOD]));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.auth_app.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (cache rebuilds, syncs, purges). They share the
+ * scheduler pool sized by {@code spring.task.scheduling.pool.size}; jobs that talk to slow
+ * external systems hand their work to their own executor instead of holding a pool thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,36 +1,94 @@
 package com.auth_app.demo.config;
 
+import com.auth_app.demo.services.IdempotencyStore;
+import com.auth_app.demo.services.JwtService;
+import com.auth_app.demo.services.TokenRevocationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtService jwtService,
+                                                   TokenRevocationService tokenRevocationService,
+                                                   RouteAuthorizationManager routeAuthorizationManager,
+                                                   IdempotencyStore idempotencyStore,
+                                                   IdempotencyProperties idempotencyProperties,
+                                                   @Qualifier("handlerExceptionResolver")
+                                                   HandlerExceptionResolver handlerExceptionResolver) throws Exception {
         return http.csrf(customizer -> customizer.disable())
-                .authorizeHttpRequests((req ->
-                        req.requestMatchers("/", "/register", "/login", "/logout").permitAll()
-                                .requestMatchers("/admin").hasRole("ADMIN")
-                                .anyRequest().authenticated()))
+                // Rules live in app.security.authorization.rules
+                .authorizeHttpRequests(req -> req.anyRequest().access(routeAuthorizationManager))
 //                .formLogin(Customizer.withDefaults())
                 .httpBasic(Customizer.withDefaults())
 //                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-//                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService, tokenRevocationService),
+                        BasicAuthenticationFilter.class)
+                // After authorization, so only permitted requests claim idempotency keys
+                .addFilterAfter(new IdempotencyFilter(idempotencyStore, idempotencyProperties, handlerExceptionResolver),
+                        AuthorizationFilter.class)
                 .build();
     }
 
 
+    @Bean
+    public RouteAuthorizationManager routeAuthorizationManager(AuthorizationProperties properties) {
+        return new RouteAuthorizationManager(properties.getRules());
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new JfrPasswordEncoder(new BCryptPasswordEncoder(12));
+    }
+
+    @Bean
+    public UnknownUserTimingStrategy unknownUserTimingStrategy(PasswordEncoder passwordEncoder,
+                                                               AuthTimingProperties properties) {
+        return switch (properties.getTiming()) {
+            case CALIBRATED_DELAY -> new CalibratedDelayTimingStrategy(
+                    passwordEncoder, properties.getSampleSize(), properties.getCalibrationRuns());
+            case DUMMY_HASH -> new DummyHashTimingStrategy(passwordEncoder);
+        };
+    }
+
+    /**
+     * Replaces the auto-configured DaoAuthenticationProvider, so unknown usernames are
+     * handled by the timing strategy instead of a dummy hash. Password upgrades still go to
+     * a UserDetailsPasswordService bean when one exists, as with the auto-configured provider.
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         UnknownUserTimingStrategy unknownUserTimingStrategy,
+                                                         ObjectProvider<UserDetailsPasswordService> passwordServices) {
+        TimingSafeAuthenticationProvider provider =
+                new TimingSafeAuthenticationProvider(userDetailsService, passwordEncoder, unknownUserTimingStrategy);
+        provider.setUserDetailsPasswordService(passwordServices.getIfUnique());
+        return provider;
     }
 
 }
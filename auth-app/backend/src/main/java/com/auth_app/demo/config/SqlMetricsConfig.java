@@ -0,0 +1,34 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.services.impl.SqlStatementMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link MeteredDataSource} unless
+ * {@code app.sql-metrics.enabled} is false.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    // Static: post-processors are created before regular beans, including SqlMetricsProperties
+    @Bean
+    static BeanPostProcessor meteredDataSourcePostProcessor(Environment environment,
+                                                           ObjectProvider<SqlStatementMetrics> metrics) {
+        boolean enabled = environment.getProperty("app.sql-metrics.enabled", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof MeteredDataSource)) {
+                    return new MeteredDataSource(dataSource, metrics::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
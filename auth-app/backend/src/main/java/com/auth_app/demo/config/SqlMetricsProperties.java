@@ -0,0 +1,54 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for per-statement SQL metrics and the slow-query log.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.sql-metrics")
+public class SqlMetricsProperties {
+
+    /**
+     * Whether the DataSource is wrapped to time connections, statements and result sets.
+     * Read once at startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements taking at least this long are logged with the request id.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * Distinct statement shapes tracked; further shapes are counted together as "other".
+     */
+    private int maxShapes = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public int getMaxShapes() {
+        return maxShapes;
+    }
+
+    public void setMaxShapes(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+}
@@ -0,0 +1,29 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.dtos.SqlStatementStats;
+import com.auth_app.demo.services.impl.SqlStatementMetrics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/sqlstatements}: every statement shape with its SQL and totals, most total time first.
+ * The same numbers per shape id are in the {@code db.statements} metrics.
+ */
+@Component
+@Endpoint(id = "sqlstatements")
+public class SqlStatementsEndpoint {
+
+    private final SqlStatementMetrics metrics;
+
+    public SqlStatementsEndpoint(SqlStatementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @ReadOperation
+    public List<SqlStatementStats> statements() {
+        return metrics.snapshot();
+    }
+}
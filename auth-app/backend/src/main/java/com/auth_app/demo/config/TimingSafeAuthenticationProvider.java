@@ -0,0 +1,114 @@
+package com.auth_app.demo.config;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Username/password provider that delegates the unknown-user case to a pluggable
+ * {@link UnknownUserTimingStrategy}.
+ * <p>
+ * Equivalent to {@code DaoAuthenticationProvider}, whose {@code retrieveUser} is final and
+ * always burns a dummy hash for unknown usernames. The duration of every authentication of an
+ * existing account, measured from the start of the lookup, is reported to the strategy so it
+ * can reproduce the same distribution for unknown ones.
+ * <p>
+ * Like {@code DaoAuthenticationProvider}, a successful login whose stored hash the encoder
+ * wants to upgrade is re-encoded and handed to the {@link UserDetailsPasswordService}, if any.
+ */
+public class TimingSafeAuthenticationProvider extends AbstractUserDetailsAuthenticationProvider {
+
+    private static final ThreadLocal<Long> STARTED = new ThreadLocal<>();
+
+    private final UserDetailsService userDetailsService;
+    private final PasswordEncoder passwordEncoder;
+    private final UnknownUserTimingStrategy timingStrategy;
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    public TimingSafeAuthenticationProvider(UserDetailsService userDetailsService,
+                                            PasswordEncoder passwordEncoder,
+                                            UnknownUserTimingStrategy timingStrategy) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.timingStrategy = timingStrategy;
+    }
+
+    public void setUserDetailsPasswordService(UserDetailsPasswordService userDetailsPasswordService) {
+        this.userDetailsPasswordService = userDetailsPasswordService;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        STARTED.set(System.nanoTime());
+        try {
+            return super.authenticate(authentication);
+        } finally {
+            STARTED.remove();
+        }
+    }
+
+    @Override
+    protected UserDetails retrieveUser(String username, UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        try {
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            if (user == null) {
+                throw new InternalAuthenticationServiceException(
+                        "UserDetailsService returned null, which is an interface contract violation");
+            }
+            return user;
+        } catch (UsernameNotFoundException e) {
+            Object credentials = authentication.getCredentials();
+            timingStrategy.onUnknownUser(credentials != null ? credentials.toString() : null, elapsed());
+            throw e;
+        } catch (InternalAuthenticationServiceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InternalAuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            throw new BadCredentialsException(messages.getMessage(
+                    "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
+        }
+        String presentedPassword = authentication.getCredentials().toString();
+        boolean matches = userDetails.getPassword() != null
+                && passwordEncoder.matches(presentedPassword, userDetails.getPassword());
+        timingStrategy.recordKnownUser(elapsed());
+        if (!matches) {
+            throw new BadCredentialsException(messages.getMessage(
+                    "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
+        }
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        boolean upgradeEncoding = userDetailsPasswordService != null
+                && passwordEncoder.upgradeEncoding(user.getPassword());
+        if (upgradeEncoding) {
+            String presentedPassword = authentication.getCredentials().toString();
+            String newPassword = passwordEncoder.encode(presentedPassword);
+            user = userDetailsPasswordService.updatePassword(user, newPassword);
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+    private static long elapsed() {
+        Long started = STARTED.get();
+        return started != null ? System.nanoTime() - started : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.auth_app.demo.config;
+
+/**
+ * Keeps authentication of unknown usernames indistinguishable in time from real accounts.
+ * <p>
+ * {@link TimingSafeAuthenticationProvider} reports how long each authentication of an existing
+ * account took (lookup plus password check) and hands control to {@link #onUnknownUser} when
+ * the username does not exist, which returns once the failure may be reported.
+ */
+public interface UnknownUserTimingStrategy {
+
+    /**
+     * Records the duration of a completed authentication of an existing account.
+     */
+    default void recordKnownUser(long elapsedNanos) {
+    }
+
+    /**
+     * Called for an unknown username after {@code elapsedNanos} were already spent on the lookup.
+     */
+    void onUnknownUser(String presentedPassword, long elapsedNanos);
+}
@@ -0,0 +1,53 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for soft-deleted users.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.users.deletion")
+public class UserDeletionProperties {
+
+    /**
+     * How long a deleted user is kept before it is removed for good.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * How often users past the retention period are purged.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * Users hard-deleted per statement (and per transaction).
+     */
+    private int purgeBatchSize = 1_000;
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public int getPurgeBatchSize() {
+        return purgeBatchSize;
+    }
+
+    public void setPurgeBatchSize(int purgeBatchSize) {
+        this.purgeBatchSize = purgeBatchSize;
+    }
+}
@@ -0,0 +1,40 @@
+package com.auth_app.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for coalescing concurrent reads of the same user.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.users.read-coalescing")
+public class UserReadCoalescingProperties {
+
+    /**
+     * Whether concurrent lookups of the same id or email share one database load.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a caller waits for a load started by another request before failing with 503.
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,117 @@
+package com.auth_app.demo.controllers;
+
+import com.auth_app.demo.common.ApiResponse;
+import com.auth_app.demo.config.JwtProperties;
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import com.auth_app.demo.dtos.AuthResDto;
+import com.auth_app.demo.dtos.AuthTokensDto;
+import com.auth_app.demo.dtos.LoginDto;
+import com.auth_app.demo.dtos.OAuth2LoginDto;
+import com.auth_app.demo.enums.AuthProvider;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.services.AuthService;
+import com.auth_app.demo.services.EmailVerificationService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+@RestController
+@RequestMapping(AuthController.BASE_PATH)
+@RequiredArgsConstructor
+public class AuthController {
+
+    static final String BASE_PATH = "/api/auth";
+
+    private final AuthService authService;
+    private final EmailVerificationService emailVerificationService;
+    private final JwtProperties jwtProperties;
+
+    @PostMapping("/login")
+    public ResponseEntity<ApiResponse<AuthResDto>> login(@Valid @RequestBody LoginDto loginDto) {
+        return withTokens(authService.login(loginDto), "Login successful");
+    }
+
+    /**
+     * Exchange an ID token from GOOGLE, GITHUB, ... for this application's tokens.
+     */
+    @PostMapping("/oauth2/{provider}")
+    public ResponseEntity<ApiResponse<AuthResDto>> loginWithIdToken(@PathVariable String provider,
+                                                                    @Valid @RequestBody OAuth2LoginDto loginDto) {
+        AuthProvider authProvider = Arrays.stream(AuthProvider.values())
+                .filter(p -> p != AuthProvider.LOCAL && p.name().equalsIgnoreCase(provider))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException(ErrorCode.OPERATION_NOT_ALLOWED, HttpStatus.BAD_REQUEST,
+                        "Unknown identity provider: " + provider));
+        return withTokens(authService.loginWithIdToken(authProvider, loginDto.getIdToken()), "Login successful");
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResDto>> refresh(HttpServletRequest request) {
+        String refreshToken = refreshToken(request);
+        if (refreshToken == null) {
+            throw new BusinessException(ErrorCode.AUTH_REFRESH_TOKEN_INVALID, HttpStatus.UNAUTHORIZED);
+        }
+        return withTokens(authService.refresh(refreshToken), "Token refreshed successfully");
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request, Authentication authentication) {
+        AccessTokenClaims claims = authentication != null && authentication.getDetails() instanceof AccessTokenClaims c
+                ? c : null;
+        authService.logout(refreshToken(request), claims);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
+                .body(ApiResponse.success(null, "Logout successful"));
+    }
+
+    /**
+     * Target of the link in the verification email.
+     */
+    @GetMapping("/verify-email")
+    public ResponseEntity<ApiResponse<Void>> verifyEmail(@RequestParam String token) {
+        emailVerificationService.verifyEmail(token);
+        return ResponseEntity.ok(ApiResponse.success(null, "Email verified successfully"));
+    }
+
+    private ResponseEntity<ApiResponse<AuthResDto>> withTokens(AuthTokensDto tokens, String message) {
+        AuthResDto body = AuthResDto.builder()
+                .accessToken(tokens.getAccessToken())
+                .expiresIn(tokens.getAccessTokenExpiresIn())
+                .build();
+        ResponseCookie cookie = refreshCookie(tokens.getRefreshToken(),
+                Duration.ofSeconds(tokens.getRefreshTokenExpiresIn()));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body(ApiResponse.success(body, message));
+    }
+
+    private String refreshToken(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, jwtProperties.getRefreshTokenCookieName());
+        return cookie != null && !cookie.getValue().isEmpty() ? cookie.getValue() : null;
+    }
+
+    /**
+     * Scoped to the auth endpoints so the refresh token is never sent with API calls.
+     */
+    private ResponseCookie refreshCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(jwtProperties.getRefreshTokenCookieName(), value)
+                .path(BASE_PATH)
+                .httpOnly(jwtProperties.isCookieHttpOnly())
+                .secure(jwtProperties.isCookieSecure())
+                .sameSite(jwtProperties.getCookieSameSite())
+                .maxAge(maxAge)
+                .build();
+    }
+}
@@ -1,17 +1,29 @@
 package com.auth_app.demo.controllers;
 
 import com.auth_app.demo.common.ApiResponse;
+import com.auth_app.demo.common.ETags;
+import com.auth_app.demo.dtos.BulkRoleAssignmentDto;
+import com.auth_app.demo.dtos.BulkRoleAssignmentResDto;
+import com.auth_app.demo.dtos.UserBatchGetDto;
+import com.auth_app.demo.dtos.UserBatchResDto;
 import com.auth_app.demo.dtos.UserDto;
+import com.auth_app.demo.dtos.UserPatchDto;
 import com.auth_app.demo.dtos.UserResDto;
+import com.auth_app.demo.dtos.UserSearchResDto;
+import com.auth_app.demo.dtos.UserVersionDto;
+import com.auth_app.demo.enums.AuthProvider;
 import com.auth_app.demo.exceptions.EntityNotFoundException;
 import com.auth_app.demo.services.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -29,17 +41,34 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserResDto>> getUserById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<UserResDto>> getUserById(@PathVariable UUID id, WebRequest webRequest) {
+        if (isConditional(webRequest) && isNotModified(userService.getUserVersion(id), webRequest)) {
+            return null;
+        }
         UserResDto user = userService.getUserById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User", id));
-        return ResponseEntity.ok(ApiResponse.success(user));
+        return withValidators(user);
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<ApiResponse<UserResDto>> getUserByEmail(@PathVariable String email) {
+    public ResponseEntity<ApiResponse<UserResDto>> getUserByEmail(@PathVariable String email, WebRequest webRequest) {
+        if (isConditional(webRequest) && isNotModified(userService.getUserVersionByEmail(email), webRequest)) {
+            return null;
+        }
         UserResDto user = userService.getUserByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("User", email));
-        return ResponseEntity.ok(ApiResponse.success(user));
+        return withValidators(user);
+    }
+
+    /**
+     * Resolve many users by id and/or email in one call. Keys that match no user are
+     * returned with a null value rather than failing the request. ADMIN only, by the route
+     * rules in application.yaml.
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<ApiResponse<UserBatchResDto>> getUsers(@Valid @RequestBody UserBatchGetDto request) {
+        UserBatchResDto result = userService.getUsers(request.getIds(), request.getEmails());
+        return ResponseEntity.ok(ApiResponse.success(result, "Users retrieved successfully"));
     }
 
     @GetMapping
@@ -48,12 +77,42 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(users, "Users retrieved successfully"));
     }
 
+    /**
+     * Substring search by email or name with optional role and provider filters.
+     * Pass the returned {@code nextCursor} back as {@code cursor} for the next page.
+     * At most a thousand of the closest matches per email/name and prefix/substring are ranked;
+     * {@code truncated} in the response is true when a broader query matched more than that.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<UserSearchResDto>> searchUsers(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) AuthProvider provider,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        UserSearchResDto result = userService.searchUsers(query, role, provider, limit, cursor);
+        return ResponseEntity.ok(ApiResponse.success(result, "Users retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<UserResDto>> updateUser(
             @PathVariable UUID id,
             @Valid @RequestBody UserDto userDto) {
         UserResDto updatedUser = userService.updateUser(id, userDto);
-        return ResponseEntity.ok(ApiResponse.success(updatedUser, "User updated successfully"));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updatedUser.getId(), updatedUser.getVersion()))
+                .body(ApiResponse.success(updatedUser, "User updated successfully"));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<UserResDto>> patchUser(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UserPatchDto patch) {
+        UserResDto updatedUser = userService.patchUser(id, patch, ETags.parseVersions(ifMatch, id));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updatedUser.getId(), updatedUser.getVersion()))
+                .body(ApiResponse.success(updatedUser, "User updated successfully"));
     }
 
     @DeleteMapping("/{id}")
@@ -62,6 +121,12 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(null, "User deleted successfully"));
     }
 
+    @PostMapping("/{id}/tokens/revoke")
+    public ResponseEntity<ApiResponse<Void>> revokeAllTokens(@PathVariable UUID id) {
+        userService.revokeAllTokens(id);
+        return ResponseEntity.ok(ApiResponse.success(null, "All tokens revoked successfully"));
+    }
+
     @PostMapping("/{id}/roles/{roleName}")
     public ResponseEntity<ApiResponse<UserResDto>> addRoleToUser(
             @PathVariable UUID id,
@@ -77,5 +142,46 @@ public class UserController {
         UserResDto updatedUser = userService.removeRoleFromUser(id, roleName);
         return ResponseEntity.ok(ApiResponse.success(updatedUser, "Role removed successfully"));
     }
+
+    @PostMapping("/roles/{roleName}/grant")
+    public ResponseEntity<ApiResponse<BulkRoleAssignmentResDto>> grantRoleToUsers(
+            @PathVariable String roleName,
+            @Valid @RequestBody BulkRoleAssignmentDto request) {
+        BulkRoleAssignmentResDto result = userService.grantRoleToUsers(roleName, request.getUserIds());
+        return ResponseEntity.ok(ApiResponse.success(result, "Role granted successfully"));
+    }
+
+    @PostMapping("/roles/{roleName}/revoke")
+    public ResponseEntity<ApiResponse<BulkRoleAssignmentResDto>> revokeRoleFromUsers(
+            @PathVariable String roleName,
+            @Valid @RequestBody BulkRoleAssignmentDto request) {
+        BulkRoleAssignmentResDto result = userService.revokeRoleFromUsers(roleName, request.getUserIds());
+        return ResponseEntity.ok(ApiResponse.success(result, "Role revoked successfully"));
+    }
+
+    // ========== Conditional GET ==========
+
+    private static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * Answer If-None-Match from the version projection alone.
+     * When true, the response has already been turned into a 304 with the ETag set.
+     * <p>
+     * The ETag is the only validator: Last-Modified has one-second resolution, so two
+     * writes within the same second would look unmodified to If-Modified-Since.
+     */
+    private static boolean isNotModified(Optional<UserVersionDto> current, WebRequest webRequest) {
+        return current
+                .map(v -> webRequest.checkNotModified(ETags.of(v.getId(), v.getVersion())))
+                .orElse(false);
+    }
+
+    private static ResponseEntity<ApiResponse<UserResDto>> withValidators(UserResDto user) {
+        return ResponseEntity.ok()
+                .eTag(ETags.of(user.getId(), user.getVersion()))
+                .body(ApiResponse.success(user));
+    }
 }
 
@@ -0,0 +1,22 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verified claims of an access token.
+ */
+@Getter
+@AllArgsConstructor
+public class AccessTokenClaims {
+    private UUID userId;
+    private UUID jti;
+    private String email;
+    private List<String> roles;
+    /** Millisecond issue time, so a revocation in the same second as a later login does not cover it. */
+    private long issuedAtEpochMilli;
+    private long expiresAtEpochSecond;
+}
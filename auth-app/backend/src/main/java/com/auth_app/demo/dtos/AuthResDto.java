@@ -0,0 +1,18 @@
+package com.auth_app.demo.dtos;
+
+import lombok.*;
+
+/**
+ * Access token returned by login and refresh. The refresh token travels in an HttpOnly cookie.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthResDto {
+    private String accessToken;
+    @Builder.Default
+    private String tokenType = "Bearer";
+    private long expiresIn;
+}
@@ -0,0 +1,16 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Token pair issued by login and refresh.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthTokensDto {
+    private String accessToken;
+    private long accessTokenExpiresIn;
+    private String refreshToken;
+    private long refreshTokenExpiresIn;
+}
@@ -0,0 +1,25 @@
+package com.auth_app.demo.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DTO for granting or revoking one role for many users at once.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRoleAssignmentDto {
+
+    public static final int MAX_USER_IDS = 1000;
+
+    @NotEmpty(message = "User ids are required")
+    @Size(max = MAX_USER_IDS, message = "At most " + MAX_USER_IDS + " user ids per request")
+    private Set<UUID> userIds;
+}
@@ -0,0 +1,20 @@
+package com.auth_app.demo.dtos;
+
+import lombok.*;
+
+/**
+ * Response DTO for a bulk role grant / revoke.
+ * {@code affected} counts rows actually inserted or deleted, so ids that already
+ * held (or did not hold) the role, or that do not exist, are not counted.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRoleAssignmentResDto {
+
+    private String roleName;
+    private int requested;
+    private int affected;
+}
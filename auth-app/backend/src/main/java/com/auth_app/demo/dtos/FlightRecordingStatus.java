@@ -0,0 +1,23 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * State of the on-demand flight recording.
+ */
+@Getter
+@AllArgsConstructor
+public class FlightRecordingStatus {
+    /** NONE when no recording exists, otherwise the JFR state (RUNNING, STOPPED, ...). */
+    private String state;
+    private Instant startedAt;
+    /** When a running recording stops by itself. */
+    private Instant stopsAt;
+    /** Bytes currently held by the recording. */
+    private long size;
+    /** Path of the most recent dump, if any. */
+    private String lastDump;
+}
@@ -0,0 +1,51 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Outcome of claiming an idempotency key.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class IdempotencyClaim {
+
+    public enum Outcome {
+        /** The caller holds the key and must execute the request. */
+        ACQUIRED,
+        /** An earlier execution completed; replay {@link #getResponse()}. */
+        REPLAY,
+        /** Another execution still holds the key after the wait timeout. */
+        IN_PROGRESS,
+        /** The key was used for a request with a different body. */
+        MISMATCH
+    }
+
+    private static final IdempotencyClaim IN_PROGRESS = new IdempotencyClaim(Outcome.IN_PROGRESS, null, null, null);
+    private static final IdempotencyClaim MISMATCH = new IdempotencyClaim(Outcome.MISMATCH, null, null, null);
+
+    private Outcome outcome;
+    private String key;
+    /** Identifies this execution's hold on the key, so a late completion cannot overwrite a newer one. */
+    private UUID owner;
+    private StoredResponse response;
+
+    public static IdempotencyClaim acquired(String key, UUID owner) {
+        return new IdempotencyClaim(Outcome.ACQUIRED, key, owner, null);
+    }
+
+    public static IdempotencyClaim replay(StoredResponse response) {
+        return new IdempotencyClaim(Outcome.REPLAY, null, null, response);
+    }
+
+    public static IdempotencyClaim inProgress() {
+        return IN_PROGRESS;
+    }
+
+    public static IdempotencyClaim mismatch() {
+        return MISMATCH;
+    }
+}
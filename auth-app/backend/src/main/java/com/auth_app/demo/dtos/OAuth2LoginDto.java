@@ -0,0 +1,22 @@
+package com.auth_app.demo.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * ID token obtained by the client from an external identity provider.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OAuth2LoginDto {
+
+    @NotBlank(message = "ID token is required")
+    private String idToken;
+}
@@ -0,0 +1,19 @@
+package com.auth_app.demo.dtos;
+
+import com.auth_app.demo.enums.AuthProvider;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Verified identity from an ID token.
+ */
+@Getter
+@AllArgsConstructor
+public class OidcIdentity {
+    private AuthProvider provider;
+    /** The sub claim; stored as the user's providerId. */
+    private String subject;
+    private String email;
+    private boolean emailVerified;
+    private String name;
+}
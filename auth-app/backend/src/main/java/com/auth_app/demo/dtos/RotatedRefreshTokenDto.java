@@ -0,0 +1,21 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a successful refresh-token rotation, with the claims of the next access token.
+ */
+@Getter
+@AllArgsConstructor
+public class RotatedRefreshTokenDto {
+    private UUID userId;
+    private UUID familyId;
+    private String email;
+    private List<String> roles;
+    /** The new raw refresh token; only its hash is stored. */
+    private String refreshToken;
+}
@@ -0,0 +1,22 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Totals for one statement shape since startup.
+ */
+@Getter
+@AllArgsConstructor
+public class SqlStatementStats {
+    /** Short, stable name used as the metrics tag, e.g. {@code select users 1f3a9c2e}. */
+    private String id;
+    /** The statement with literals and parameter lists collapsed. */
+    private String sql;
+    private long executions;
+    private double totalMillis;
+    private double maxMillis;
+    /** Rows read from result sets, plus rows affected by updates. */
+    private long rows;
+    private long slow;
+}
@@ -0,0 +1,16 @@
+package com.auth_app.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A response kept for replay to retries with the same idempotency key.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+    private int status;
+    /** Null when the response had no body. */
+    private String contentType;
+    private byte[] body;
+}
@@ -0,0 +1,27 @@
+package com.auth_app.demo.dtos;
+
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for looking up many users at once by id and/or email.
+ * At least one key is required, and at most {@link #MAX_KEYS} ids and emails together.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchGetDto {
+
+    public static final int MAX_KEYS = 500;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " ids per request")
+    private List<UUID> ids;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " emails per request")
+    private List<String> emails;
+}
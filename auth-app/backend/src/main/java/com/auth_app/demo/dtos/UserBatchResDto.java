@@ -0,0 +1,25 @@
+package com.auth_app.demo.dtos;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response DTO for a batch lookup, keyed by the requested ids and emails in request order.
+ * Keys that matched no live user map to null and are also listed under {@code notFoundIds}
+ * and {@code notFoundEmails}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchResDto {
+
+    private Map<UUID, UserResDto> byId;
+    private Map<String, UserResDto> byEmail;
+    private List<UUID> notFoundIds;
+    private List<String> notFoundEmails;
+}
@@ -0,0 +1,30 @@
+package com.auth_app.demo.dtos;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.Set;
+
+/**
+ * DTO for partially updating a User (PATCH).
+ * Every field is optional; a null field leaves the stored value unchanged.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPatchDto {
+
+    @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
+    private String name;
+
+    @Email(message = "Email must be valid")
+    private String email;
+
+    @Size(min = 8, message = "Password must be at least 8 characters")
+    private String password;
+
+    private Set<String> roles;
+}
@@ -15,7 +15,7 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class UserResDto {
 
     private UUID id;
@@ -26,4 +26,5 @@ public class UserResDto {
     private Set<String> roles;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.auth_app.demo.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of user search results, best match first.
+ * {@code nextCursor} is null on the last page. {@code truncated} is true when the search
+ * matched more users than it ranks, so less similar matches are missing from the results;
+ * a more specific query finds them.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchResDto {
+
+    private List<UserResDto> users;
+    private String nextCursor;
+    private boolean truncated;
+}
@@ -0,0 +1,19 @@
+package com.auth_app.demo.dtos;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lightweight projection of a user's validators (version and last modification),
+ * used to answer conditional requests without loading the entity and its roles.
+ */
+@Getter
+@AllArgsConstructor
+public class UserVersionDto {
+
+    private UUID id;
+    private Long version;
+    private Instant updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.auth_app.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outstanding email verification, keyed by the SHA-256 hash of the token in the link.
+ * A user has at most one: requesting a new verification deletes the previous token.
+ */
+@Entity
+@Table(name = "email_verification_tokens", indexes = {
+        @Index(name = "idx_email_verification_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_email_verification_tokens_user_id", columnList = "user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailVerificationToken {
+
+    @Id
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /**
+     * Address the link was sent to; the token verifies the user only while this is still their email.
+     * Nullable in the schema for tokens issued before the column existed, which no longer verify.
+     */
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
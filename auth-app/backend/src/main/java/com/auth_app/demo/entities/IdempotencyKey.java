@@ -0,0 +1,49 @@
+package com.auth_app.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A claimed idempotency key and, once the request has completed, its response.
+ * A null status means the request is still executing.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    /** Digest of caller, method, path and header value. */
+    @Id
+    @Column(name = "key_hash", nullable = false, length = 64)
+    private String key;
+
+    @Column(name = "owner", nullable = false)
+    private UUID owner;
+
+    @Column(name = "fingerprint", nullable = false)
+    private byte[] fingerprint;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "body")
+    private byte[] body;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,55 @@
+package com.auth_app.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Verification email waiting to be sent, written in the transaction that created the need
+ * for it. Rows are deleted once delivered; rows that ran out of attempts keep failedAt set
+ * but lose their token.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_available_at", columnList = "available_at"),
+        @Index(name = "idx_email_outbox_user_id", columnList = "user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEmail {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    /** Raw verification token for the link; gone with the row once sent, cleared when given up on. */
+    @Column(name = "verification_token", length = 64)
+    private String verificationToken;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
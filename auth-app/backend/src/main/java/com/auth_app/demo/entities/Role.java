@@ -3,10 +3,13 @@ package com.auth_app.demo.entities;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Role definition. Membership is owned by {@link User#getRoles()} only: there is
+ * deliberately no inverse {@code users} collection, because popular roles such as
+ * {@code USER} can have millions of members and touching that set would load them all.
+ */
 @Entity
 @Table(name = "roles")
 @Getter
@@ -17,7 +20,7 @@ import java.util.UUID;
 public class Role {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "name", nullable = false, unique = true)
@@ -26,9 +29,6 @@ public class Role {
     @Column(name = "description")
     private String description;
 
-    @ManyToMany(mappedBy = "roles")
-    private Set<User> users = new HashSet<>();
-
     public Role(String name) {
         this.name = name;
     }
@@ -0,0 +1,21 @@
+package com.auth_app.demo.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a {@code UUID} id as generated in-process by {@link TimeOrderedUuidGenerator}
+ * (UUIDv7) when the entity is persisted. Use instead of
+ * {@code @GeneratedValue(strategy = GenerationType.UUID)}, which yields random v4 ids.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeOrderedUuid {
+}
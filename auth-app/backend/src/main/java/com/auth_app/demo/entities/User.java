@@ -1,8 +1,13 @@
 package com.auth_app.demo.entities;
 
+import com.auth_app.demo.common.JfrEvents;
+import com.auth_app.demo.common.RoleSet;
 import com.auth_app.demo.enums.AuthProvider;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -12,6 +17,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,29 +27,35 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "name")
     private String name;
 
-    @Column(name = "email", nullable = false, unique = true)
+    /** Unique among non-deleted users (partial index ux_users_email_active). */
+    @Column(name = "email", nullable = false)
     private String email;
 
     @Column(name = "password")
     private String password;
 
     @Column(name = "email_verified")
+    @Builder.Default
     private Boolean emailVerified = false;
 
     @Column(name = "is_active")
+    @Builder.Default
     private Boolean isActive = true;
 
 
     @Enumerated(EnumType.STRING)
     @Column(name = "provider")
+    @Builder.Default
     private AuthProvider provider = AuthProvider.LOCAL;
 
+    /** Unique per provider among non-deleted users (partial index ux_users_provider_active). */
+    @Column(name = "provider_id")
     private String providerId;
 
     @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
@@ -51,14 +64,39 @@ public class User {
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id")
     )
+    @Builder.Default
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Optimistic-locking version. Left null for new users so persistence treats them as new.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /**
+     * Set when the user is deleted. Deleted rows are invisible to every entity query and are
+     * hard-deleted by the purge job after the retention period.
+     */
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    /**
+     * Interned view of {@link #roles}, built on first use and reset by the role mutators below.
+     * Change roles only through those, never through {@code getRoles()} directly.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private RoleSet roleSet;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
@@ -70,17 +108,49 @@ public class User {
         updatedAt = Instant.now();
     }
 
+    /**
+     * Only the owning side is touched; the role's membership is never materialized.
+     */
     public void addRole(Role role) {
         this.roles.add(role);
-        role.getUsers().add(this);
+        this.roleSet = null;
     }
 
     public void removeRole(Role role) {
         this.roles.remove(role);
-        role.getUsers().remove(this);
+        this.roleSet = null;
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.roleSet = null;
+    }
+
+    /**
+     * The user's roles as a shared, immutable bitmask set. The first call may load the roles
+     * collection, and is recorded as a flight recorder event.
+     */
+    public RoleSet getRoleSet() {
+        RoleSet current = roleSet;
+        if (current == null) {
+            JfrEvents.RoleResolution event = new JfrEvents.RoleResolution();
+            event.begin();
+            long mask = 0L;
+            for (Role role : roles) {
+                mask |= RoleSet.bit(role.getName());
+            }
+            current = RoleSet.ofMask(mask);
+            roleSet = current;
+            if (event.isEnabled()) {
+                event.source = "user";
+                event.roles = current.toString();
+                event.commitWithRequestId();
+            }
+        }
+        return current;
     }
 
     public boolean hasRole(String roleName) {
-        return this.roles.stream().anyMatch(r -> r.getName().equals(roleName));
+        return getRoleSet().contains(roleName);
     }
 }
@@ -0,0 +1,33 @@
+package com.auth_app.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Per-user revocation watermark: every token of the user issued at or before
+ * {@code notBefore} is invalid.
+ */
+@Entity
+@Table(name = "user_token_watermarks", indexes = {
+        @Index(name = "idx_user_token_watermarks_updated_at", columnList = "updated_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTokenWatermark {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.auth_app.demo.enums;
+
+/**
+ * Where responses to requests carrying an {@code Idempotency-Key} are kept.
+ */
+public enum IdempotencyStorage {
+    /**
+     * In this instance's heap. Cheapest, but retries routed to another instance re-execute.
+     */
+    MEMORY,
+    /**
+     * In the idempotency_keys table, shared by every instance.
+     */
+    POSTGRES
+}
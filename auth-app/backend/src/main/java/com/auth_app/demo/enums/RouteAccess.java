@@ -0,0 +1,19 @@
+package com.auth_app.demo.enums;
+
+/**
+ * What an authorization rule requires of the caller.
+ */
+public enum RouteAccess {
+    /**
+     * Anyone, including anonymous callers.
+     */
+    PERMIT_ALL,
+    /**
+     * Any authenticated caller, or one holding at least one of the rule's authorities when it lists any.
+     */
+    AUTHENTICATED,
+    /**
+     * Nobody.
+     */
+    DENY_ALL
+}
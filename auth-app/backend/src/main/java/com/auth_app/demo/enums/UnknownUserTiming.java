@@ -0,0 +1,18 @@
+package com.auth_app.demo.enums;
+
+/**
+ * How authentication hides whether an account exists when the username is unknown.
+ */
+public enum UnknownUserTiming {
+    /**
+     * Wait for a duration sampled from measured password checks of real accounts.
+     * Costs no CPU while waiting; the sleep parks the request's virtual thread, so it needs
+     * {@code spring.threads.virtual.enabled}.
+     */
+    CALIBRATED_DELAY,
+    /**
+     * Verify the presented password against a dummy hash (Spring Security's default).
+     * Burns a full hash computation per attempt.
+     */
+    DUMMY_HASH
+}
@@ -5,6 +5,11 @@ import org.springframework.http.HttpStatus;
 /**
  * Custom business exception for domain-specific errors.
  * Carries an error code and HTTP status for proper API responses.
+ * <p>
+ * These are expected outcomes (not found, conflict, bad input), so they never capture a
+ * stack trace: {@link #fillInStackTrace()} dominates the cost of a throw, and the error code
+ * and message already say where the failure came from. With {@code app.errors.include-stacktrace}
+ * a response still shows the exception and the full trace of any wrapped cause.
  */
 public class BusinessException extends RuntimeException {
 
@@ -13,42 +18,42 @@ public class BusinessException extends RuntimeException {
     private final Object[] args;
 
     public BusinessException(ErrorCode errorCode) {
-        super(errorCode.getDefaultMessage());
+        super(errorCode.getDefaultMessage(), null, false, false);
         this.errorCode = errorCode;
         this.httpStatus = HttpStatus.BAD_REQUEST;
         this.args = null;
     }
 
     public BusinessException(ErrorCode errorCode, String message) {
-        super(message);
+        super(message, null, false, false);
         this.errorCode = errorCode;
         this.httpStatus = HttpStatus.BAD_REQUEST;
         this.args = null;
     }
 
     public BusinessException(ErrorCode errorCode, HttpStatus httpStatus) {
-        super(errorCode.getDefaultMessage());
+        super(errorCode.getDefaultMessage(), null, false, false);
         this.errorCode = errorCode;
         this.httpStatus = httpStatus;
         this.args = null;
     }
 
     public BusinessException(ErrorCode errorCode, HttpStatus httpStatus, String message) {
-        super(message);
+        super(message, null, false, false);
         this.errorCode = errorCode;
         this.httpStatus = httpStatus;
         this.args = null;
     }
 
     public BusinessException(ErrorCode errorCode, HttpStatus httpStatus, String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
         this.errorCode = errorCode;
         this.httpStatus = httpStatus;
         this.args = null;
     }
 
     public BusinessException(ErrorCode errorCode, HttpStatus httpStatus, String message, Object... args) {
-        super(message);
+        super(message, null, false, false);
         this.errorCode = errorCode;
         this.httpStatus = httpStatus;
         this.args = args;
@@ -12,24 +12,39 @@ public enum ErrorCode {
     AUTH_ACCESS_DENIED("AUTH_003", "Access denied to requested resource"),
     AUTH_ACCOUNT_LOCKED("AUTH_004", "Account is locked"),
     AUTH_ACCOUNT_DISABLED("AUTH_005", "Account is disabled"),
+    AUTH_REFRESH_TOKEN_INVALID("AUTH_006", "Refresh token is invalid or expired"),
+    AUTH_REFRESH_TOKEN_REUSED("AUTH_007", "Refresh token was already used"),
+    AUTH_EMAIL_NOT_VERIFIED("AUTH_008", "Email address is not verified by the identity provider"),
 
     // User Domain
     USER_NOT_FOUND("USER_001", "User not found"),
     USER_EMAIL_EXISTS("USER_002", "Email already exists"),
     USER_INVALID_PASSWORD("USER_003", "Invalid password format"),
+    USER_VERSION_CONFLICT("USER_004", "User was modified by another request"),
+    USER_VERIFICATION_TOKEN_INVALID("USER_005", "Verification link is invalid or expired"),
 
     // Role Domain
     ROLE_NOT_FOUND("ROLE_001", "Role not found"),
     ROLE_ALREADY_ASSIGNED("ROLE_002", "Role already assigned to user"),
 
+    // Idempotency
+    IDEMPOTENCY_KEY_REUSED("IDEM_001", "Idempotency key was already used for a different request"),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS("IDEM_002", "A request with this idempotency key is still being processed"),
+
+    // Diagnostics
+    JFR_RECORDING_RUNNING("DIAG_001", "A flight recording is already running"),
+    JFR_NO_RECORDING("DIAG_002", "No flight recording has been started"),
+
     // Validation
     VALIDATION_FAILED("VAL_001", "Validation failed"),
 
     // Generic
     RESOURCE_NOT_FOUND("RES_001", "Requested resource not found"),
     OPERATION_NOT_ALLOWED("RES_002", "Operation not allowed"),
+    CONCURRENT_MODIFICATION("RES_003", "Resource was modified concurrently"),
     INTERNAL_ERROR("SYS_001", "Internal server error"),
-    BAD_REQUEST("SYS_002", "Bad request");
+    BAD_REQUEST("SYS_002", "Bad request"),
+    SERVICE_UNAVAILABLE("SYS_003", "Service temporarily unavailable");
 
     private final String code;
     private final String defaultMessage;
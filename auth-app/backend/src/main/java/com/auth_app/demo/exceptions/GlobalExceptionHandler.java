@@ -1,5 +1,6 @@
 package com.auth_app.demo.exceptions;
 
+import com.auth_app.demo.common.JfrEvents;
 import com.auth_app.demo.config.ErrorProperties;
 import com.auth_app.demo.config.RequestIdFilter;
 import com.auth_app.demo.exceptions.model.ApiError;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
@@ -87,6 +89,23 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        String requestId = RequestIdFilter.getCurrentRequestId();
+
+        log.info("Concurrent modification - Path: {}, RequestId: {}", request.getRequestURI(), requestId);
+
+        return buildErrorResponse(
+                HttpStatus.CONFLICT,
+                ErrorCode.CONCURRENT_MODIFICATION.getCode(),
+                "The resource was modified by another request. Reload it and retry.",
+                request.getRequestURI(),
+                requestId,
+                null,
+                ex
+        );
+    }
+
     // ========== Validation Exceptions ==========
 
     @Override
@@ -274,10 +293,18 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             List<ApiError.FieldError> fieldErrors,
             Exception ex) {
 
-        if (errorProperties.isUseProblemDetails()) {
-            return buildProblemDetailsResponse(status, code, message, path, requestId, fieldErrors, ex);
+        JfrEvents.ErrorHandled event = new JfrEvents.ErrorHandled();
+        event.begin();
+        ResponseEntity<Object> response = errorProperties.isUseProblemDetails()
+                ? buildProblemDetailsResponse(status, code, message, path, requestId, fieldErrors, ex)
+                : buildApiErrorResponse(status, code, message, path, requestId, fieldErrors, ex);
+        if (event.isEnabled()) {
+            event.exceptionClass = ex.getClass();
+            event.code = code;
+            event.status = status.value();
+            event.commitWithRequestId();
         }
-        return buildApiErrorResponse(status, code, message, path, requestId, fieldErrors, ex);
+        return response;
     }
 
     private ResponseEntity<Object> buildApiErrorResponse(
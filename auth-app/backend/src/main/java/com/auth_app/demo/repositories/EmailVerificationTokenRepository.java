@@ -0,0 +1,39 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.entities.EmailVerificationToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, String> {
+
+    /**
+     * Consumes a live token and marks its user verified in one statement on the primary key.
+     * Returns 0 for unknown, already used or expired tokens, and for tokens sent to an address
+     * that is no longer the user's email.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            WITH consumed AS (
+                DELETE FROM email_verification_tokens
+                WHERE token_hash = :hash AND expires_at > :now
+                RETURNING user_id, email
+            )
+            UPDATE users SET email_verified = true, version = version + 1, updated_at = :now
+            FROM consumed
+            WHERE users.id = consumed.user_id AND users.email = consumed.email AND users.deleted_at IS NULL
+            """, nativeQuery = true)
+    int verify(@Param("hash") String hash, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from EmailVerificationToken t where t.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("delete from EmailVerificationToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,56 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.entities.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claims a key. Returns 0 when the key is already held or completed, by this or another instance.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (key_hash, owner, fingerprint, expires_at, created_at)
+            VALUES (:key, :owner, :fingerprint, :expiresAt, :now)
+            ON CONFLICT (key_hash) DO NOTHING
+            """, nativeQuery = true)
+    int insertClaim(@Param("key") String key, @Param("owner") UUID owner, @Param("fingerprint") byte[] fingerprint,
+                    @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    /**
+     * Stores the response of a claim still held by {@code owner}.
+     */
+    @Modifying
+    @Query("""
+            update IdempotencyKey k set k.status = :status, k.contentType = :contentType, k.body = :body,
+                k.expiresAt = :expiresAt
+            where k.key = :key and k.owner = :owner
+            """)
+    int complete(@Param("key") String key, @Param("owner") UUID owner, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body,
+                 @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Drops a claim still held by {@code owner} that has no response.
+     */
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.owner = :owner and k.status is null")
+    int release(@Param("key") String key, @Param("owner") UUID owner);
+
+    /**
+     * Drops one key if it has expired, so a new claim can take its place.
+     */
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.expiresAt <= :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,40 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.entities.OutboxEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, UUID> {
+
+    /**
+     * Leases up to {@code limit} due emails in one statement: each attempt is counted and the
+     * row is not due again before {@code leaseUntil}. Rows being claimed by another dispatcher
+     * are skipped rather than waited for. Commit before sending, so no lock is held meanwhile.
+     */
+    @Query(value = """
+            WITH claimed AS (
+                UPDATE email_outbox SET available_at = :leaseUntil, attempts = attempts + 1
+                WHERE id IN (
+                    SELECT id FROM email_outbox
+                    WHERE failed_at IS NULL AND available_at <= :now
+                    ORDER BY available_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING *
+            )
+            SELECT * FROM claimed ORDER BY available_at, id
+            """, nativeQuery = true)
+    List<OutboxEmail> claimDue(@Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil,
+                               @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from OutboxEmail e where e.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,70 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Consumes a live token of an active user and inserts its successor in one statement,
+     * returning what the new access token needs. Empty when the hash is unknown, already used,
+     * revoked or expired, or the user is deactivated or deleted.
+     */
+    @Query(value = """
+            WITH used AS (
+                UPDATE refresh_tokens t SET used_at = :now
+                FROM users u
+                WHERE t.token_hash = :hash AND t.used_at IS NULL AND t.revoked_at IS NULL
+                  AND t.expires_at > :now AND u.id = t.user_id AND u.is_active AND u.deleted_at IS NULL
+                RETURNING t.user_id, t.family_id, t.created_at, u.email
+            ), issued AS (
+                INSERT INTO refresh_tokens (id, token_hash, user_id, family_id, expires_at, created_at)
+                SELECT :newId, :newHash, user_id, family_id, :newExpiresAt, :now FROM used
+                RETURNING id
+            )
+            SELECT used.user_id AS "userId", used.family_id AS "familyId", used.email AS "email",
+                   CAST(floor(EXTRACT(EPOCH FROM used.created_at) * 1000) AS bigint) AS "previousIssuedAt",
+                   (SELECT string_agg(r.name, ',') FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                    WHERE ur.user_id = used.user_id) AS "roles"
+            FROM used
+            """, nativeQuery = true)
+    Optional<Rotated> rotate(@Param("hash") String hash, @Param("newId") UUID newId, @Param("newHash") String newHash,
+                             @Param("newExpiresAt") Instant newExpiresAt, @Param("now") Instant now);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
+
+    /**
+     * Deletes at most {@code limit} expired tokens, so each purge transaction stays short.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    interface Rotated {
+        UUID getUserId();
+
+        UUID getFamilyId();
+
+        String getEmail();
+
+        /** Comma-separated role names, null when the user has none. */
+        String getRoles();
+
+        /** Creation time of the rotated token, in epoch milliseconds. */
+        long getPreviousIssuedAt();
+    }
+}
@@ -0,0 +1,34 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    /**
+     * Records a revoked jti. Revoking the same token twice is a no-op.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO revoked_tokens (jti, user_id, expires_at, revoked_at)
+            VALUES (:jti, :userId, :expiresAt, :revokedAt)
+            ON CONFLICT (jti) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("jti") UUID jti, @Param("userId") UUID userId,
+                       @Param("expiresAt") Instant expiresAt, @Param("revokedAt") Instant revokedAt);
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -2,6 +2,7 @@ package com.auth_app.demo.repositories;
 
 import com.auth_app.demo.entities.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +14,10 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
     Optional<Role> findByName(String name);
 
     boolean existsByName(String name);
+
+    /**
+     * Resolve only the id of a role, without loading the entity.
+     */
+    @Query("select r.id from Role r where r.name = :name")
+    Optional<UUID> findIdByName(String name);
 }
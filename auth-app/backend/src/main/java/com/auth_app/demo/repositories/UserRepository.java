@@ -1,16 +1,327 @@
 package com.auth_app.demo.repositories;
 
+import com.auth_app.demo.dtos.UserVersionDto;
 import com.auth_app.demo.entities.User;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import org.antlr.v4.runtime.misc.MultiMap;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(@NotBlank(message = "Email is required") @Email(message = "Email must be valid") String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("select new com.auth_app.demo.dtos.UserVersionDto(u.id, u.version, u.updatedAt) from User u where u.id = :id")
+    Optional<UserVersionDto> findVersionById(@Param("id") UUID id);
+
+    @Query("select new com.auth_app.demo.dtos.UserVersionDto(u.id, u.version, u.updatedAt) from User u where u.email = :email")
+    Optional<UserVersionDto> findVersionByEmail(@Param("email") String email);
+
+    /**
+     * Streams every registered email for rebuilding the email existence filter.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Emails of users created or changed after the given instant (idx_users_updated_at),
+     * for syncing the email existence filter with registrations made by other instances.
+     */
+    @Query("select u.email from User u where u.updatedAt > :since")
+    List<String> findEmailsUpdatedAfter(@Param("since") Instant since);
+
+    /**
+     * Inserts or refreshes an external-provider user in one statement on the
+     * (provider, provider_id) partial unique index. New users get the USER role in the same statement.
+     * The version only moves when the name or email_verified actually changed.
+     * {@code id} is used only when a row is inserted.
+     */
+    @Query(value = """
+            WITH upserted AS (
+                INSERT INTO users (id, name, email, email_verified, is_active, provider, provider_id,
+                                   version, created_at, updated_at)
+                VALUES (:id, CAST(:name AS varchar), :email, :emailVerified, true, :provider, :providerId, 0, :now, :now)
+                ON CONFLICT (provider, provider_id) WHERE deleted_at IS NULL DO UPDATE SET
+                    name = EXCLUDED.name,
+                    email_verified = EXCLUDED.email_verified,
+                    version = CASE WHEN (users.name, users.email_verified) IS DISTINCT FROM
+                                        (EXCLUDED.name, EXCLUDED.email_verified)
+                                   THEN users.version + 1 ELSE users.version END,
+                    updated_at = CASE WHEN (users.name, users.email_verified) IS DISTINCT FROM
+                                           (EXCLUDED.name, EXCLUDED.email_verified)
+                                      THEN EXCLUDED.updated_at ELSE users.updated_at END
+                RETURNING id, email, is_active, (xmax = 0) AS inserted
+            ), default_role AS (
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT upserted.id, r.id FROM upserted JOIN roles r ON r.name = 'USER'
+                WHERE upserted.inserted
+                RETURNING role_id
+            )
+            SELECT upserted.id AS "id", upserted.email AS "email", upserted.is_active AS "active",
+                   upserted.inserted AS "inserted",
+                   CASE WHEN upserted.inserted
+                        THEN (SELECT string_agg(r.name, ',') FROM roles r WHERE r.id IN (SELECT role_id FROM default_role))
+                        ELSE (SELECT string_agg(r.name, ',') FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                              WHERE ur.user_id = upserted.id)
+                   END AS "roles"
+            FROM upserted
+            """, nativeQuery = true)
+    ExternalUser upsertExternalUser(@Param("id") UUID id, @Param("provider") String provider, @Param("providerId") String providerId,
+                                    @Param("email") String email, @Param("emailVerified") boolean emailVerified,
+                                    @Param("name") String name, @Param("now") Instant now);
+
+    // ========== Search ==========
+
+    /**
+     * Substring search over live users' email and name, served by the trigram GiST indexes
+     * idx_users_email_trgm_gist and idx_users_name_trgm_gist. Prefix matches rank above other
+     * substring matches, then trigram similarity decides. Keyset-paginated on (rank desc, id):
+     * only rows strictly after {@code (afterRank, afterId)} are returned.
+     * {@code pattern} and {@code prefix} are lower-cased LIKE patterns with {@code \} as escape.
+     * <p>
+     * Candidates are picked by relevance, not by age: four nearest-neighbour index scans
+     * ({@code <->}, trigram distance to {@code query}) return the closest prefix and substring
+     * matches on email and on name, at most {@code maxCandidates} each, and only their union is
+     * ranked. {@code truncated} is true on every row when any scan hit the cap, i.e. when
+     * further, less similar matches were left out.
+     * Roles are aggregated for the returned page only.
+     */
+    @Query(value = """
+            WITH eligible AS NOT MATERIALIZED (
+                SELECT u.id, u.name, u.email, u.email_verified, u.provider,
+                       u.created_at, u.updated_at, u.version
+                FROM users u
+                WHERE u.deleted_at IS NULL
+                  AND (CAST(:provider AS varchar) IS NULL OR u.provider = CAST(:provider AS varchar))
+                  AND (CAST(:role AS varchar) IS NULL OR EXISTS (
+                        SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                        WHERE ur.user_id = u.id AND r.name = CAST(:role AS varchar)))
+            ), candidates AS (
+                (SELECT e.id, 1 AS scan FROM eligible e WHERE lower(e.email) LIKE :prefix
+                 ORDER BY lower(e.email) <-> :query, e.id LIMIT :maxCandidates)
+                UNION ALL
+                (SELECT e.id, 2 AS scan FROM eligible e WHERE lower(e.name) LIKE :prefix
+                 ORDER BY lower(e.name) <-> :query, e.id LIMIT :maxCandidates)
+                UNION ALL
+                (SELECT e.id, 3 AS scan FROM eligible e WHERE lower(e.email) LIKE :pattern
+                 ORDER BY lower(e.email) <-> :query, e.id LIMIT :maxCandidates)
+                UNION ALL
+                (SELECT e.id, 4 AS scan FROM eligible e WHERE lower(e.name) LIKE :pattern
+                 ORDER BY lower(e.name) <-> :query, e.id LIMIT :maxCandidates)
+            ), truncation AS (
+                SELECT COALESCE(bool_or(found >= :maxCandidates), false) AS truncated
+                FROM (SELECT count(*) AS found FROM candidates GROUP BY scan) scans
+            ), matches AS (
+                SELECT e.*,
+                       CAST(GREATEST(similarity(lower(e.email), :query), similarity(lower(e.name), :query)) AS float8)
+                           + CASE WHEN lower(e.email) LIKE :prefix OR lower(e.name) LIKE :prefix THEN 1 ELSE 0 END
+                           AS rank
+                FROM eligible e
+                WHERE e.id IN (SELECT id FROM candidates)
+            ), page AS (
+                SELECT * FROM matches
+                WHERE rank < :afterRank OR (rank = :afterRank AND id > :afterId)
+                ORDER BY rank DESC, id
+                LIMIT :limit
+            )
+            SELECT page.id AS "id", page.name AS "name", page.email AS "email",
+                   page.email_verified AS "emailVerified", page.provider AS "provider",
+                   page.created_at AS "createdAt", page.updated_at AS "updatedAt",
+                   page.version AS "version", page.rank AS "rank",
+                   (SELECT string_agg(r.name, ',') FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                    WHERE ur.user_id = page.id) AS "roles",
+                   (SELECT truncated FROM truncation) AS "truncated"
+            FROM page
+            ORDER BY page.rank DESC, page.id
+            """, nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query, @Param("pattern") String pattern,
+                           @Param("prefix") String prefix, @Param("provider") String provider,
+                           @Param("role") String role, @Param("afterRank") double afterRank,
+                           @Param("afterId") UUID afterId, @Param("limit") int limit,
+                           @Param("maxCandidates") int maxCandidates);
+
+    // ========== Batch lookup ==========
+
+    /**
+     * Live users whose id is in {@code ids} or whose email is in {@code emails}, in one round trip.
+     * Both arrays are bound as single array parameters, so the statement text does not depend on
+     * how many keys are passed. Roles are aggregated per returned user.
+     */
+    @Query(value = """
+            SELECT u.id AS "id", u.name AS "name", u.email AS "email",
+                   u.email_verified AS "emailVerified", u.provider AS "provider",
+                   u.created_at AS "createdAt", u.updated_at AS "updatedAt", u.version AS "version",
+                   (SELECT string_agg(r.name, ',') FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                    WHERE ur.user_id = u.id) AS "roles"
+            FROM users u
+            WHERE u.deleted_at IS NULL
+              AND (u.id = ANY(:ids) OR u.email = ANY(:emails))
+            """, nativeQuery = true)
+    List<UserRow> findAllByIdsOrEmails(@Param("ids") UUID[] ids, @Param("emails") String[] emails);
+
+    // ========== Soft delete ==========
+
+    /**
+     * Marks a user deleted in one statement. Returns 0 when the user does not exist or is
+     * already deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update User u set u.deletedAt = :now, u.version = u.version + 1, u.updatedAt = :now
+            where u.id = :id and u.deletedAt is null
+            """)
+    int softDelete(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Hard-deletes up to {@code limit} users deleted before the cutoff, together with every row
+     * keyed by their id: role assignments, refresh tokens, pending verifications, revocation
+     * watermarks and revoked tokens. Rows locked by a concurrent purge are skipped.
+     */
+    @Modifying
+    @Query(value = """
+            WITH doomed AS (
+                SELECT id FROM users
+                WHERE deleted_at < :cutoff
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), roles_removed AS (
+                DELETE FROM user_roles WHERE user_id IN (SELECT id FROM doomed)
+            ), refresh_tokens_removed AS (
+                DELETE FROM refresh_tokens WHERE user_id IN (SELECT id FROM doomed)
+            ), verification_tokens_removed AS (
+                DELETE FROM email_verification_tokens WHERE user_id IN (SELECT id FROM doomed)
+            ), outbox_removed AS (
+                DELETE FROM email_outbox WHERE user_id IN (SELECT id FROM doomed)
+            ), watermarks_removed AS (
+                DELETE FROM user_token_watermarks WHERE user_id IN (SELECT id FROM doomed)
+            ), revoked_tokens_removed AS (
+                DELETE FROM revoked_tokens WHERE user_id IN (SELECT id FROM doomed)
+            )
+            DELETE FROM users WHERE id IN (SELECT id FROM doomed)
+            """, nativeQuery = true)
+    int purgeDeleted(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    // ========== Role membership (direct user_roles writes) ==========
+
+    /**
+     * Grant a role to a user. Idempotent: an existing assignment is left untouched.
+     * Returns 0 when the user does not exist or already holds the role.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO user_roles (user_id, role_id)
+            SELECT u.id, :roleId FROM users u WHERE u.id = :userId AND u.deleted_at IS NULL
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertUserRole(@Param("userId") UUID userId, @Param("roleId") UUID roleId);
+
+    /**
+     * Revoke a role from a user. Returns 0 when the user did not hold the role.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM user_roles WHERE user_id = :userId AND role_id = :roleId", nativeQuery = true)
+    int deleteUserRole(@Param("userId") UUID userId, @Param("roleId") UUID roleId);
+
+    /**
+     * Grant a role to many users in one statement, bumping version and updatedAt of exactly the
+     * users that gained it. Unknown ids and users already holding the role are left untouched.
+     * Returns the number of users changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            WITH granted AS (
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, :roleId FROM users u WHERE u.id IN (:userIds) AND u.deleted_at IS NULL
+                ON CONFLICT DO NOTHING
+                RETURNING user_id
+            )
+            UPDATE users SET version = version + 1, updated_at = :now
+            WHERE id IN (SELECT user_id FROM granted)
+            """, nativeQuery = true)
+    int insertUserRoles(@Param("userIds") Collection<UUID> userIds, @Param("roleId") UUID roleId,
+                        @Param("now") Instant now);
+
+    /**
+     * Revoke a role from many users in one statement, bumping version and updatedAt of exactly
+     * the users that lost it. Returns the number of users changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            WITH revoked AS (
+                DELETE FROM user_roles WHERE role_id = :roleId AND user_id IN (:userIds)
+                RETURNING user_id
+            )
+            UPDATE users SET version = version + 1, updated_at = :now
+            WHERE id IN (SELECT user_id FROM revoked)
+            """, nativeQuery = true)
+    int deleteUserRoles(@Param("userIds") Collection<UUID> userIds, @Param("roleId") UUID roleId,
+                        @Param("now") Instant now);
+
+    /**
+     * Bump version and updatedAt of users whose roles were changed through the single-user
+     * statements above, so ETags and optimistic locks observe the change.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.version = u.version + 1, u.updatedAt = :now where u.id in :userIds")
+    int touch(@Param("userIds") Collection<UUID> userIds, @Param("now") Instant now);
+
+    interface ExternalUser {
+        UUID getId();
+
+        String getEmail();
+
+        boolean getActive();
+
+        boolean getInserted();
+
+        /** Comma-separated role names, null when the user has none. */
+        String getRoles();
+    }
+
+    /**
+     * A user read by a native query, with roles flattened into one column.
+     */
+    interface UserRow {
+        UUID getId();
+
+        String getName();
+
+        String getEmail();
+
+        Boolean getEmailVerified();
+
+        String getProvider();
+
+        Instant getCreatedAt();
+
+        Instant getUpdatedAt();
+
+        Long getVersion();
+
+        /** Comma-separated role names, null when the user has none. */
+        String getRoles();
+    }
+
+    interface SearchHit extends UserRow {
+        double getRank();
+
+        /** Whether matches beyond the ranked candidates were left out. */
+        boolean getTruncated();
+    }
 }
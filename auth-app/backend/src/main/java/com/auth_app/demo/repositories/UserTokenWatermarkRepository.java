@@ -0,0 +1,40 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.entities.UserTokenWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserTokenWatermarkRepository extends JpaRepository<UserTokenWatermark, UUID> {
+
+    /**
+     * Raises the user's watermark. Never moves it backwards, so concurrent revocations
+     * on several instances keep the latest one.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_token_watermarks (user_id, not_before, updated_at)
+            VALUES (:userId, :notBefore, :updatedAt)
+            ON CONFLICT (user_id) DO UPDATE
+            SET not_before = GREATEST(user_token_watermarks.not_before, EXCLUDED.not_before),
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsert(@Param("userId") UUID userId, @Param("notBefore") Instant notBefore,
+               @Param("updatedAt") Instant updatedAt);
+
+    List<UserTokenWatermark> findByNotBeforeAfter(Instant cutoff);
+
+    List<UserTokenWatermark> findByUpdatedAtAfter(Instant since);
+
+    /**
+     * Drops watermarks older than the longest token lifetime: every token they cover has expired.
+     */
+    @Modifying
+    @Query("delete from UserTokenWatermark w where w.notBefore < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,36 @@
+package com.auth_app.demo.services;
+
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import com.auth_app.demo.dtos.AuthTokensDto;
+import com.auth_app.demo.dtos.LoginDto;
+import com.auth_app.demo.enums.AuthProvider;
+
+/**
+ * Service interface for token-based authentication.
+ */
+public interface AuthService {
+
+    /**
+     * Authenticate with email and password and start a new refresh-token family.
+     */
+    AuthTokensDto login(LoginDto loginDto);
+
+    /**
+     * Authenticate with an ID token from an external identity provider, creating the user
+     * on first login, and start a new refresh-token family.
+     */
+    AuthTokensDto loginWithIdToken(AuthProvider provider, String idToken);
+
+    /**
+     * Rotate the refresh token and issue a new access token.
+     */
+    AuthTokensDto refresh(String refreshToken);
+
+    /**
+     * Revoke the refresh-token family and, when present, the current access token.
+     *
+     * @param refreshToken raw refresh token, or null
+     * @param accessToken claims of the access token used for the request, or null
+     */
+    void logout(String refreshToken, AccessTokenClaims accessToken);
+}
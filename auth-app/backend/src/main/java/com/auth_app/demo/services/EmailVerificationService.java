@@ -0,0 +1,20 @@
+package com.auth_app.demo.services;
+
+import java.util.UUID;
+
+/**
+ * Email ownership checks for local accounts.
+ */
+public interface EmailVerificationService {
+
+    /**
+     * Queue a verification email for the user. Must run in the transaction that created or
+     * changed the email: the email is only sent if that transaction commits.
+     */
+    void requestVerification(UUID userId, String email);
+
+    /**
+     * Mark the owner of the token verified. Fails for unknown, used or expired tokens.
+     */
+    void verifyEmail(String token);
+}
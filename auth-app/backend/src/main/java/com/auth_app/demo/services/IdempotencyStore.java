@@ -0,0 +1,38 @@
+package com.auth_app.demo.services;
+
+import com.auth_app.demo.dtos.IdempotencyClaim;
+import com.auth_app.demo.dtos.StoredResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Responses to requests carrying an {@code Idempotency-Key}, with the claims that keep
+ * concurrent duplicates from executing twice.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claim a key for execution. When another execution holds it, wait up to {@code wait}
+     * for that one to complete and return its response instead.
+     *
+     * @param key         scoped key (caller, method, path and header value), at most 64 characters
+     * @param fingerprint digest of the request body; a different body under the same key is a mismatch
+     */
+    IdempotencyClaim claim(String key, byte[] fingerprint, Duration wait);
+
+    /**
+     * Store the response of an acquired claim for replay until the TTL passes.
+     */
+    void complete(IdempotencyClaim claim, StoredResponse response);
+
+    /**
+     * Give up an acquired claim without a response (the request failed), so a retry executes again.
+     */
+    void release(IdempotencyClaim claim);
+
+    /**
+     * Remove keys that expired before {@code now}. Returns how many were removed.
+     */
+    int purgeExpired(Instant now);
+}
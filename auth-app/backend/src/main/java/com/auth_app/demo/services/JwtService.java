@@ -0,0 +1,28 @@
+package com.auth_app.demo.services;
+
+import com.auth_app.demo.dtos.AccessTokenClaims;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies signed JWT access tokens.
+ */
+public interface JwtService {
+
+    /**
+     * Create a signed access token for the user.
+     */
+    String createAccessToken(UUID userId, String email, Collection<String> roles);
+
+    /**
+     * Verify signature, issuer and expiry. Empty for any invalid token.
+     */
+    Optional<AccessTokenClaims> parseAccessToken(String token);
+
+    /**
+     * Access token lifetime in seconds.
+     */
+    long accessTokenTtlSeconds();
+}
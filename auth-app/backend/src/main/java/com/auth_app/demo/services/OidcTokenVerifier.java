@@ -0,0 +1,23 @@
+package com.auth_app.demo.services;
+
+import com.auth_app.demo.dtos.OidcIdentity;
+import com.auth_app.demo.enums.AuthProvider;
+
+import java.util.Optional;
+
+/**
+ * Verifies ID tokens issued by configured identity providers.
+ */
+public interface OidcTokenVerifier {
+
+    /**
+     * Whether ID tokens of the provider are accepted.
+     */
+    boolean supports(AuthProvider provider);
+
+    /**
+     * Verify signature, issuer, audience and expiry. Empty for any invalid token.
+     * Never blocks on the network: signing keys come from a locally cached JWKS.
+     */
+    Optional<OidcIdentity> verify(AuthProvider provider, String idToken);
+}
@@ -0,0 +1,32 @@
+package com.auth_app.demo.services;
+
+import com.auth_app.demo.dtos.RotatedRefreshTokenDto;
+
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens with rotation and reuse detection.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Issue the first token of a new family (on login). Returns the raw token.
+     */
+    String issue(UUID userId);
+
+    /**
+     * Consume the presented token and issue its successor in the same family.
+     * Presenting an already consumed token revokes the family and every token of the user.
+     */
+    RotatedRefreshTokenDto rotate(String rawToken);
+
+    /**
+     * Revoke the family of the presented token (on logout). Unknown tokens are ignored.
+     */
+    void revoke(String rawToken);
+
+    /**
+     * Refresh token lifetime in seconds.
+     */
+    long refreshTokenTtlSeconds();
+}
@@ -0,0 +1,29 @@
+package com.auth_app.demo.services;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Revocation of issued tokens, either one by one (by jti) or all tokens of a user at once.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Hot-path check run for every authenticated request. Lock-free and allocation-free.
+     *
+     * @param userId              subject of the token
+     * @param jti                 token id, or null if the token has none
+     * @param issuedAtEpochMilli  when the token was issued, in epoch milliseconds
+     */
+    boolean isRevoked(UUID userId, UUID jti, long issuedAtEpochMilli);
+
+    /**
+     * Revoke a single token until it expires.
+     */
+    void revokeToken(UUID jti, UUID userId, Instant expiresAt);
+
+    /**
+     * Revoke every token of the user issued up to now.
+     */
+    void revokeAllForUser(UUID userId);
+}
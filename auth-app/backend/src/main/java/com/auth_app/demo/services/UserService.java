@@ -1,10 +1,17 @@
 package com.auth_app.demo.services;
 
+import com.auth_app.demo.dtos.BulkRoleAssignmentResDto;
+import com.auth_app.demo.dtos.UserBatchResDto;
 import com.auth_app.demo.dtos.UserDto;
+import com.auth_app.demo.dtos.UserPatchDto;
 import com.auth_app.demo.dtos.UserResDto;
+import com.auth_app.demo.dtos.UserSearchResDto;
+import com.auth_app.demo.dtos.UserVersionDto;
+import com.auth_app.demo.enums.AuthProvider;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -27,21 +34,60 @@ public interface UserService {
      */
     Optional<UserResDto> getUserByEmail(String email);
 
+    /**
+     * Get many live users by id and/or email with a single query.
+     * Either list may be null or empty, but not both.
+     */
+    UserBatchResDto getUsers(List<UUID> ids, List<String> emails);
+
+    /**
+     * Get only the version and last modification time of a user, by ID.
+     */
+    Optional<UserVersionDto> getUserVersion(UUID id);
+
+    /**
+     * Get only the version and last modification time of a user, by email.
+     */
+    Optional<UserVersionDto> getUserVersionByEmail(String email);
+
     /**
      * Get all users.
      */
     List<UserResDto> getAllUsers();
 
+    /**
+     * Search live users by a substring of their email or name, best match first.
+     * Only the closest matches are ranked: up to a thousand each by prefix and by substring, on
+     * email and on name. {@code truncated} in the result says that further matches were left out.
+     *
+     * @param role     only users holding this role, or null for any
+     * @param provider only users from this provider, or null for any
+     * @param cursor   {@code nextCursor} of the previous page, or null for the first page
+     */
+    UserSearchResDto searchUsers(String query, String role, AuthProvider provider, Integer limit, String cursor);
+
     /**
      * Update an existing user.
      */
     UserResDto updateUser(UUID id, UserDto userDto);
 
+    /**
+     * Partially update a user. Only non-null fields are applied.
+     *
+     * @param expectedVersions versions the client accepts (from If-Match), or null to skip the check
+     */
+    UserResDto patchUser(UUID id, UserPatchDto patch, Set<Long> expectedVersions);
+
     /**
      * Delete a user by ID.
      */
     void deleteUser(UUID id);
 
+    /**
+     * Invalidate every token issued to the user so far (logout everywhere).
+     */
+    void revokeAllTokens(UUID id);
+
     /**
      * Check if a user exists by email.
      */
@@ -56,4 +102,14 @@ public interface UserService {
      * Remove a role from a user.
      */
     UserResDto removeRoleFromUser(UUID userId, String roleName);
+
+    /**
+     * Grant a role to many users in a single statement.
+     */
+    BulkRoleAssignmentResDto grantRoleToUsers(String roleName, Set<UUID> userIds);
+
+    /**
+     * Revoke a role from many users in a single statement.
+     */
+    BulkRoleAssignmentResDto revokeRoleFromUsers(String roleName, Set<UUID> userIds);
 }
@@ -0,0 +1,12 @@
+package com.auth_app.demo.services;
+
+/**
+ * Delivers verification emails. Called by the outbox dispatcher, never on the request path.
+ */
+public interface VerificationMailSender {
+
+    /**
+     * Send the verification link. Throws on any delivery failure so the email is retried.
+     */
+    void sendVerificationEmail(String recipient, String verificationLink);
+}
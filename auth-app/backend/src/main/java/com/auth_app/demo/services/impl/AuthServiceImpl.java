@@ -0,0 +1,121 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.ConstraintViolations;
+import com.auth_app.demo.common.UuidV7;
+import com.auth_app.demo.config.UserPrinciple;
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import com.auth_app.demo.dtos.AuthTokensDto;
+import com.auth_app.demo.dtos.LoginDto;
+import com.auth_app.demo.dtos.RotatedRefreshTokenDto;
+import com.auth_app.demo.dtos.OidcIdentity;
+import com.auth_app.demo.entities.User;
+import com.auth_app.demo.enums.AuthProvider;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.repositories.UserRepository;
+import com.auth_app.demo.services.AuthService;
+import com.auth_app.demo.services.JwtService;
+import com.auth_app.demo.services.OidcTokenVerifier;
+import com.auth_app.demo.services.RefreshTokenService;
+import com.auth_app.demo.services.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AuthServiceImpl implements AuthService {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final OidcTokenVerifier oidcTokenVerifier;
+    private final UserRepository userRepository;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final UserReadCoalescer userReadCoalescer;
+
+    @Override
+    public AuthTokensDto login(LoginDto loginDto) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(loginDto.getEmail(), loginDto.getPassword()));
+        User user = ((UserPrinciple) authentication.getPrincipal()).getUser();
+        String accessToken = jwtService.createAccessToken(user.getId(), user.getEmail(), user.getRoleSet().getNames());
+        String refreshToken = refreshTokenService.issue(user.getId());
+        return tokens(accessToken, refreshToken);
+    }
+
+    @Override
+    @Transactional
+    public AuthTokensDto loginWithIdToken(AuthProvider provider, String idToken) {
+        if (!oidcTokenVerifier.supports(provider)) {
+            throw new BusinessException(ErrorCode.OPERATION_NOT_ALLOWED, HttpStatus.BAD_REQUEST,
+                    "Login with " + provider + " is not enabled");
+        }
+        OidcIdentity identity = oidcTokenVerifier.verify(provider, idToken)
+                .orElseThrow(() -> new BadCredentialsException("Invalid ID token"));
+        // An unverified address would reserve an email its owner has not proven, blocking the real owner
+        if (!identity.isEmailVerified()) {
+            throw new BusinessException(ErrorCode.AUTH_EMAIL_NOT_VERIFIED, HttpStatus.FORBIDDEN,
+                    "The " + provider + " account's email address is not verified");
+        }
+
+        UserRepository.ExternalUser user;
+        try {
+            user = userRepository.upsertExternalUser(UuidV7.generate(), provider.name(), identity.getSubject(),
+                    identity.getEmail(), true, identity.getName(), Instant.now());
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.violates(e, ConstraintViolations.USERS_EMAIL_ACTIVE)) {
+                throw e;
+            }
+            // The email belongs to an account of another provider; never link accounts silently
+            throw new BusinessException(ErrorCode.USER_EMAIL_EXISTS, HttpStatus.CONFLICT,
+                    "Email already registered with another sign-in method: " + identity.getEmail());
+        }
+        userReadCoalescer.invalidateAfterCommit();
+        if (!user.getActive()) {
+            throw new DisabledException("User is disabled");
+        }
+        if (user.getInserted()) {
+            emailExistenceFilter.add(user.getEmail());
+        }
+
+        List<String> roles = user.getRoles() != null ? List.of(user.getRoles().split(",")) : List.of();
+        String accessToken = jwtService.createAccessToken(user.getId(), user.getEmail(), roles);
+        String refreshToken = refreshTokenService.issue(user.getId());
+        return tokens(accessToken, refreshToken);
+    }
+
+    @Override
+    public AuthTokensDto refresh(String refreshToken) {
+        RotatedRefreshTokenDto rotated = refreshTokenService.rotate(refreshToken);
+        String accessToken = jwtService.createAccessToken(rotated.getUserId(), rotated.getEmail(), rotated.getRoles());
+        return tokens(accessToken, rotated.getRefreshToken());
+    }
+
+    @Override
+    public void logout(String refreshToken, AccessTokenClaims accessToken) {
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (accessToken != null && accessToken.getJti() != null) {
+            tokenRevocationService.revokeToken(accessToken.getJti(), accessToken.getUserId(),
+                    Instant.ofEpochSecond(accessToken.getExpiresAtEpochSecond()));
+        }
+    }
+
+    private AuthTokensDto tokens(String accessToken, String refreshToken) {
+        return new AuthTokensDto(accessToken, jwtService.accessTokenTtlSeconds(),
+                refreshToken, refreshTokenService.refreshTokenTtlSeconds());
+    }
+}
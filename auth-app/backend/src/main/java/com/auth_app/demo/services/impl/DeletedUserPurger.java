@@ -0,0 +1,51 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.UserDeletionProperties;
+import com.auth_app.demo.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * Hard-deletes soft-deleted users once the retention period has passed, in bounded batches
+ * with one short transaction each.
+ */
+@Component
+public class DeletedUserPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(DeletedUserPurger.class);
+
+    private final UserRepository userRepository;
+    private final UserDeletionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public DeletedUserPurger(UserRepository userRepository,
+                             UserDeletionProperties properties,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.users.deletion.purge-interval:PT1H}",
+            fixedDelayString = "${app.users.deletion.purge-interval:PT1H}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        int batchSize = properties.getPurgeBatchSize();
+        long total = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status -> userRepository.purgeDeleted(cutoff, batchSize));
+            deleted = count != null ? count : 0;
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.info("Purged {} users deleted before {}", total, cutoff);
+        }
+    }
+}
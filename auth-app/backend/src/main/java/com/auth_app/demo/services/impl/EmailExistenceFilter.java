@@ -0,0 +1,197 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.BloomFilter;
+import com.auth_app.demo.config.EmailFilterProperties;
+import com.auth_app.demo.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory negative cache of registered emails, backed by a {@link BloomFilter}.
+ * <p>
+ * {@link #mightExist} returning false means the email is definitely not registered and the
+ * database lookup can be skipped; true means "ask the database". Until the first build has
+ * finished every email is reported as possibly existing.
+ * <p>
+ * New emails are added after their transaction commits. Emails registered or changed on
+ * other instances (or directly in the database, provided updated_at is set) are pulled in every
+ * sync interval, so for up to one interval a login there may be answered "not found" here.
+ * Negatives are not trusted at all while the last successful sync is older than three intervals.
+ * Deleted or replaced emails stay in the filter (costing only a database lookup) until the
+ * next scheduled rebuild.
+ */
+@Component
+public class EmailExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailExistenceFilter.class);
+
+    /** Re-read a little before the last sync to tolerate clock skew between instances. */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final UserRepository userRepository;
+    private final EmailFilterProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object writeLock = new Object();
+    private volatile BloomFilter filter;
+    /** Emails added while a rebuild is streaming; replayed into the new filter. Guarded by writeLock. */
+    private Set<String> pendingDuringRebuild;
+    /** Emails of other instances updated before this instant (less SYNC_OVERLAP) are in the filter. */
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public EmailExistenceFilter(UserRepository userRepository,
+                                EmailFilterProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns false only when the email is definitely not registered.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        return current == null || email == null || !properties.isEnabled() || !inSync()
+                || current.mightContain(email);
+    }
+
+    /**
+     * Records a newly registered email. Inside a transaction the email is added on commit,
+     * so rolled-back registrations never enter the filter.
+     */
+    public void add(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(email);
+                }
+            });
+        } else {
+            record(email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.email-filter.rebuild-interval:PT6H}",
+            fixedDelayString = "${app.email-filter.rebuild-interval:PT6H}")
+    public void scheduledRebuild() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds emails registered or changed by other instances since the last sync.
+     */
+    @Scheduled(initialDelayString = "${app.email-filter.sync-interval:PT30S}",
+            fixedDelayString = "${app.email-filter.sync-interval:PT30S}")
+    public void sync() {
+        if (!properties.isEnabled() || filter == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            List<String> emails = readOnlyTransaction.execute(
+                    status -> userRepository.findEmailsUpdatedAfter(lastSync.minus(SYNC_OVERLAP)));
+            emails.forEach(this::record);
+            advanceLastSync(now);
+        } catch (RuntimeException e) {
+            log.warn("Email filter sync failed, negatives are distrusted once the filter falls behind", e);
+        }
+    }
+
+    /**
+     * Builds a fresh filter from all registered emails and swaps it in. Lookups keep using
+     * the previous filter while the new one is streamed from the database.
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            if (pendingDuringRebuild != null) {
+                log.debug("Email filter rebuild already in progress, skipping");
+                return;
+            }
+            pendingDuringRebuild = new HashSet<>();
+        }
+        try {
+            long started = System.nanoTime();
+            Instant snapshot = Instant.now();
+            BloomFilter fresh = BloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+            AtomicLong count = new AtomicLong();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        fresh.put(email);
+                        count.incrementAndGet();
+                    });
+                }
+            });
+            synchronized (writeLock) {
+                pendingDuringRebuild.forEach(fresh::put);
+                filter = fresh;
+            }
+            advanceLastSync(snapshot);
+            log.info("Email filter rebuilt with {} emails ({} KiB, {} hash functions) in {} ms",
+                    count.get(), fresh.bitSize() / 8 / 1024, fresh.hashFunctions(),
+                    (System.nanoTime() - started) / 1_000_000);
+            if (count.get() > properties.getExpectedInsertions()) {
+                log.warn("Email filter holds {} emails but is sized for {}; false positives will exceed {}",
+                        count.get(), properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+            }
+        } catch (RuntimeException e) {
+            log.error("Email filter rebuild failed, keeping the previous filter", e);
+        } finally {
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    private boolean inSync() {
+        return lastSync.isAfter(Instant.now().minus(properties.getSyncInterval().multipliedBy(3)));
+    }
+
+    private void advanceLastSync(Instant syncedUpTo) {
+        synchronized (writeLock) {
+            if (syncedUpTo.isAfter(lastSync)) {
+                lastSync = syncedUpTo;
+            }
+        }
+    }
+
+    private void record(String email) {
+        synchronized (writeLock) {
+            BloomFilter current = filter;
+            if (current != null) {
+                current.put(email);
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(email);
+            }
+        }
+    }
+}
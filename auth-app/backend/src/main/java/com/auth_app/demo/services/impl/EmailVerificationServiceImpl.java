@@ -0,0 +1,76 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.OpaqueTokens;
+import com.auth_app.demo.config.EmailVerificationProperties;
+import com.auth_app.demo.entities.EmailVerificationToken;
+import com.auth_app.demo.entities.OutboxEmail;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.repositories.EmailVerificationTokenRepository;
+import com.auth_app.demo.repositories.OutboxEmailRepository;
+import com.auth_app.demo.services.EmailVerificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Writes the verification token and its outbox email in the caller's transaction; delivery
+ * is left to {@link VerificationEmailDispatcher}, so registration never waits on mail.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailVerificationServiceImpl implements EmailVerificationService {
+
+    private final EmailVerificationTokenRepository tokenRepository;
+    private final OutboxEmailRepository outboxRepository;
+    private final EmailVerificationProperties properties;
+    private final UserReadCoalescer userReadCoalescer;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void requestVerification(UUID userId, String email) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // A new address supersedes earlier links, sent or still queued
+        tokenRepository.deleteByUserId(userId);
+        outboxRepository.deleteByUserId(userId);
+
+        String token = OpaqueTokens.generate();
+        Instant now = Instant.now();
+        tokenRepository.save(EmailVerificationToken.builder()
+                .tokenHash(OpaqueTokens.hash(token))
+                .userId(userId)
+                .email(email)
+                .expiresAt(now.plus(properties.getTokenTtl()))
+                .build());
+        outboxRepository.save(OutboxEmail.builder()
+                .userId(userId)
+                .recipient(email)
+                .verificationToken(token)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void verifyEmail(String token) {
+        if (token == null || token.isBlank() || tokenRepository.verify(OpaqueTokens.hash(token), Instant.now()) == 0) {
+            throw new BusinessException(ErrorCode.USER_VERIFICATION_TOKEN_INVALID);
+        }
+        userReadCoalescer.invalidateAfterCommit();
+    }
+
+    @Scheduled(initialDelayString = "${app.email-verification.purge-interval:PT1H}",
+            fixedDelayString = "${app.email-verification.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        tokenRepository.deleteExpired(Instant.now());
+    }
+}
@@ -0,0 +1,174 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.JfrEvents;
+import com.auth_app.demo.config.FlightRecorderProperties;
+import com.auth_app.demo.dtos.FlightRecordingStatus;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Starts, dumps and stops one flight recording at a time, for looking inside a running instance
+ * without a redeploy.
+ * <p>
+ * The recording is bounded three ways: it keeps at most {@code app.jfr.max-age} and
+ * {@code app.jfr.max-size} of data, and stops by itself after {@code app.jfr.max-duration}. Dumps
+ * go to {@code app.jfr.directory}, which keeps the newest {@code app.jfr.max-files} of them.
+ */
+@Component
+public class FlightRecordingManager {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingManager.class);
+
+    private static final String RECORDING_NAME = "auth-app";
+    private static final String FILE_PREFIX = "auth-app-";
+    private static final String FILE_SUFFIX = ".jfr";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final List<Class<? extends Event>> APP_EVENTS = List.of(
+            JfrEvents.HttpRequest.class, JfrEvents.PasswordHash.class, JfrEvents.PasswordVerify.class,
+            JfrEvents.UserLookup.class, JfrEvents.RoleResolution.class, JfrEvents.ErrorHandled.class);
+
+    private final FlightRecorderProperties properties;
+    private Recording recording;
+    private Path lastDump;
+
+    public FlightRecordingManager(FlightRecorderProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized FlightRecordingStatus start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new BusinessException(ErrorCode.JFR_RECORDING_RUNNING, HttpStatus.CONFLICT);
+        }
+        closeRecording();
+        Recording started = new Recording(configuration());
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(properties.getMaxAge());
+        started.setMaxSize(properties.getMaxSize().toBytes());
+        started.setDuration(properties.getMaxDuration());
+        for (Class<? extends Event> event : APP_EVENTS) {
+            started.enable(event);
+        }
+        started.start();
+        recording = started;
+        log.info("Flight recording started with settings '{}', stops by itself after {}",
+                properties.getSettings(), properties.getMaxDuration());
+        return status();
+    }
+
+    /**
+     * Writes the recorded data to a new file; a running recording keeps running.
+     */
+    public synchronized FlightRecordingStatus dump() {
+        requireRecording();
+        lastDump = writeDump();
+        return status();
+    }
+
+    /**
+     * Dumps and discards the recording.
+     */
+    public synchronized FlightRecordingStatus stop() {
+        requireRecording();
+        lastDump = writeDump();
+        closeRecording();
+        log.info("Flight recording stopped");
+        return status();
+    }
+
+    public synchronized FlightRecordingStatus status() {
+        if (recording == null) {
+            return new FlightRecordingStatus("NONE", null, null, 0, lastDump != null ? lastDump.toString() : null);
+        }
+        Instant startedAt = recording.getStartTime();
+        Instant stopsAt = recording.getState() == RecordingState.RUNNING && startedAt != null
+                ? startedAt.plus(recording.getDuration()) : recording.getStopTime();
+        return new FlightRecordingStatus(recording.getState().name(), startedAt, stopsAt, recording.getSize(),
+                lastDump != null ? lastDump.toString() : null);
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        closeRecording();
+    }
+
+    private void requireRecording() {
+        if (recording == null) {
+            throw new BusinessException(ErrorCode.JFR_NO_RECORDING, HttpStatus.CONFLICT);
+        }
+    }
+
+    private Configuration configuration() {
+        String settings = properties.getSettings();
+        try {
+            return settings.endsWith(".jfc")
+                    ? Configuration.create(Path.of(settings))
+                    : Configuration.getConfiguration(settings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JFR settings " + settings, e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings " + settings, e);
+        }
+    }
+
+    private Path writeDump() {
+        try {
+            Path directory = properties.getDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve(FILE_PREFIX + FILE_TIMESTAMP.format(Instant.now()) + FILE_SUFFIX);
+            recording.dump(file);
+            log.info("Flight recording dumped to {} ({} bytes)", file, Files.size(file));
+            pruneDumps(directory);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Flight recording dump failed", e);
+        }
+    }
+
+    /**
+     * Deletes all but the newest {@code max-files} dumps; the timestamped names sort by age.
+     */
+    private void pruneDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+        for (Path stale : dumps.subList(Math.min(properties.getMaxFiles(), dumps.size()), dumps.size())) {
+            Files.deleteIfExists(stale);
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.services.IdempotencyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Removes idempotency keys whose response (or abandoned claim) has expired.
+ */
+@Component
+public class IdempotencyKeyPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyPurger.class);
+
+    private final IdempotencyStore store;
+
+    public IdempotencyKeyPurger(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval:PT10M}",
+            fixedDelayString = "${app.idempotency.purge-interval:PT10M}")
+    public void purge() {
+        int purged = store.purgeExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
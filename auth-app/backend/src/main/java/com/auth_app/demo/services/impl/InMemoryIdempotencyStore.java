@@ -0,0 +1,142 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.UuidV7;
+import com.auth_app.demo.dtos.IdempotencyClaim;
+import com.auth_app.demo.dtos.StoredResponse;
+import com.auth_app.demo.services.IdempotencyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency keys in a concurrent map, bounded by entry count.
+ * <p>
+ * Each entry carries a future that completes when its execution stores a response (or gives
+ * up), so duplicates park on it instead of polling. Keys are digests and bodies are kept as raw
+ * bytes, which keeps an entry to roughly its response size plus ~200 bytes.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryIdempotencyStore.class);
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final int maxEntries;
+
+    public InMemoryIdempotencyStore(Duration ttl, Duration lockTimeout, int maxEntries) {
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public IdempotencyClaim claim(String key, byte[] fingerprint, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            long now = System.currentTimeMillis();
+            UUID owner = UuidV7.generate();
+            Entry existing = entries.putIfAbsent(key, new Entry(owner, fingerprint, now + lockTimeout.toMillis()));
+            if (existing == null) {
+                return acquired(key, owner, now);
+            }
+            if (existing.expiresAt <= now) {
+                // Stale claim or expired response: drop it and let its waiters retry with us
+                if (entries.remove(key, existing)) {
+                    existing.outcome.complete(null);
+                }
+                continue;
+            }
+            if (!Arrays.equals(existing.fingerprint, fingerprint)) {
+                return IdempotencyClaim.mismatch();
+            }
+            StoredResponse response;
+            try {
+                response = existing.outcome.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return IdempotencyClaim.inProgress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return IdempotencyClaim.inProgress();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if (response != null) {
+                return IdempotencyClaim.replay(response);
+            }
+            // Released without a response: try to take the key over
+        }
+    }
+
+    private IdempotencyClaim acquired(String key, UUID owner, long now) {
+        if (entries.size() > maxEntries) {
+            purgeExpired(Instant.ofEpochMilli(now));
+            if (entries.size() > maxEntries) {
+                // Full of live keys: run the request unprotected rather than reject it
+                releaseEntry(key, owner);
+                log.warn("Idempotency store is full ({} keys); executing without deduplication", maxEntries);
+            }
+        }
+        return IdempotencyClaim.acquired(key, owner);
+    }
+
+    @Override
+    public void complete(IdempotencyClaim claim, StoredResponse response) {
+        Entry entry = entries.get(claim.getKey());
+        if (entry != null && entry.owner.equals(claim.getOwner())) {
+            entry.expiresAt = System.currentTimeMillis() + ttl.toMillis();
+            entry.outcome.complete(response);
+        }
+    }
+
+    @Override
+    public void release(IdempotencyClaim claim) {
+        releaseEntry(claim.getKey(), claim.getOwner());
+    }
+
+    private void releaseEntry(String key, UUID owner) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.owner.equals(owner) && entries.remove(key, entry)) {
+            entry.outcome.complete(null);
+        }
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        long cutoff = now.toEpochMilli();
+        int removed = 0;
+        for (Map.Entry<String, Entry> mapping : entries.entrySet()) {
+            Entry entry = mapping.getValue();
+            if (entry.expiresAt <= cutoff && entries.remove(mapping.getKey(), entry)) {
+                entry.outcome.complete(null);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static final class Entry {
+        private final UUID owner;
+        private final byte[] fingerprint;
+        /** Lock expiry while executing, response expiry once completed. */
+        private volatile long expiresAt;
+        /** Completes with the stored response, or with null when the claim is given up. */
+        private final CompletableFuture<StoredResponse> outcome = new CompletableFuture<>();
+
+        private Entry(UUID owner, byte[] fingerprint, long expiresAt) {
+            this.owner = owner;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.OAuth2Properties;
+import com.auth_app.demo.enums.AuthProvider;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Signing keys of every configured identity provider, fetched off the request path.
+ * <p>
+ * Keys are loaded when the application is ready and re-fetched on a fixed interval. A lookup
+ * for an unknown key id (the provider rotated its keys) returns null at once and schedules a
+ * fetch, rate-limited per provider; a failed fetch keeps the previous keys.
+ */
+@Component
+public class JwksCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksCache.class);
+
+    private final OAuth2Properties properties;
+    private final HttpClient httpClient;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("jwks-refresh").daemon().factory());
+
+    /** provider -> (kid -> key); each map is replaced as a whole, never mutated. */
+    private final Map<AuthProvider, Map<String, Key>> keys = new ConcurrentHashMap<>();
+    private final Map<AuthProvider, Long> lastFetchNanos = new ConcurrentHashMap<>();
+
+    public JwksCache(OAuth2Properties properties) {
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getJwksFetchTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Returns the cached key, or null when it is not (yet) known.
+     */
+    public Key find(AuthProvider provider, String keyId) {
+        Map<String, Key> current = keys.get(provider);
+        Key key = current != null && keyId != null ? current.get(keyId) : null;
+        if (key == null) {
+            requestRefresh(provider);
+        }
+        return key;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.security.oauth2.jwks-refresh-interval:PT15M}",
+            fixedDelayString = "${app.security.oauth2.jwks-refresh-interval:PT15M}")
+    public void refreshAll() {
+        properties.getProviders().keySet().forEach(provider -> refresher.execute(() -> refresh(provider)));
+    }
+
+    /**
+     * Fetches the provider's JWKS now, on the calling thread.
+     */
+    void refresh(AuthProvider provider) {
+        OAuth2Properties.Provider config = properties.getProviders().get(provider);
+        if (config == null || config.getJwksUri() == null) {
+            return;
+        }
+        lastFetchNanos.put(provider, System.nanoTime());
+        try {
+            HttpRequest request = HttpRequest.newBuilder(config.getJwksUri())
+                    .timeout(properties.getJwksFetchTimeout())
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("JWKS fetch for {} returned HTTP {}", provider, response.statusCode());
+                return;
+            }
+            JwkSet set = Jwks.setParser().build().parse(response.body());
+            Map<String, Key> fetched = new HashMap<>();
+            for (Jwk<?> jwk : set) {
+                if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+                    fetched.put(jwk.getId(), publicKey);
+                }
+            }
+            keys.put(provider, Map.copyOf(fetched));
+            log.debug("Loaded {} signing keys for {}", fetched.size(), provider);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("JWKS fetch for {} failed, keeping {} cached keys: {}",
+                    provider, keys.getOrDefault(provider, Map.of()).size(), e.toString());
+        }
+    }
+
+    private void requestRefresh(AuthProvider provider) {
+        long now = System.nanoTime();
+        long minInterval = properties.getJwksMinRefreshInterval().toNanos();
+        Long previous = lastFetchNanos.get(provider);
+        if (previous != null && now - previous < minInterval) {
+            return;
+        }
+        // Only the caller that wins the swap schedules the fetch
+        boolean claimed = previous == null
+                ? lastFetchNanos.putIfAbsent(provider, now) == null
+                : lastFetchNanos.replace(provider, previous, now);
+        if (claimed && !refresher.isShutdown()) {
+            refresher.execute(() -> refresh(provider));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+}
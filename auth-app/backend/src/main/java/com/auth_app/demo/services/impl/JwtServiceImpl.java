@@ -0,0 +1,92 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.JwtProperties;
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import com.auth_app.demo.services.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class JwtServiceImpl implements JwtService {
+
+    private static final String EMAIL_CLAIM = "email";
+    private static final String ROLES_CLAIM = "roles";
+    /** iat has one-second resolution; revocation watermarks are compared in milliseconds. */
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    private final JwtProperties properties;
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    public JwtServiceImpl(JwtProperties properties) {
+        this.properties = properties;
+        this.key = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(properties.getIssuer())
+                .build();
+    }
+
+    @Override
+    public String createAccessToken(UUID userId, String email, Collection<String> roles) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(userId.toString())
+                .issuer(properties.getIssuer())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(properties.getAccessTtlSeconds())))
+                .claim(EMAIL_CLAIM, email)
+                .claim(ROLES_CLAIM, List.copyOf(roles))
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.toEpochMilli())
+                .signWith(key)
+                .compact();
+    }
+
+    @Override
+    public Optional<AccessTokenClaims> parseAccessToken(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            List<?> roles = claims.get(ROLES_CLAIM, List.class);
+            return Optional.of(new AccessTokenClaims(
+                    UUID.fromString(claims.getSubject()),
+                    claims.getId() != null ? UUID.fromString(claims.getId()) : null,
+                    claims.get(EMAIL_CLAIM, String.class),
+                    roles != null ? roles.stream().map(String::valueOf).toList() : List.of(),
+                    issuedAtMillis(claims),
+                    claims.getExpiration().toInstant().getEpochSecond()));
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tokens without the millisecond claim count as issued at the end of their iat second,
+     * so a revocation within that second still covers them.
+     */
+    private static long issuedAtMillis(Claims claims) {
+        Object millis = claims.get(ISSUED_AT_MILLIS_CLAIM);
+        if (millis instanceof Number number) {
+            return number.longValue();
+        }
+        return claims.getIssuedAt().toInstant().getEpochSecond() * 1000 + 999;
+    }
+
+    @Override
+    public long accessTokenTtlSeconds() {
+        return properties.getAccessTtlSeconds();
+    }
+}
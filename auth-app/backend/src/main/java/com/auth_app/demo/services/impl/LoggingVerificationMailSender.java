@@ -0,0 +1,19 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.services.VerificationMailSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local stand-in that logs the link instead of sending mail. Used until a real
+ * {@link VerificationMailSender} bean is defined.
+ */
+public class LoggingVerificationMailSender implements VerificationMailSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingVerificationMailSender.class);
+
+    @Override
+    public void sendVerificationEmail(String recipient, String verificationLink) {
+        log.info("Verification email for {}: {}", recipient, verificationLink);
+    }
+}
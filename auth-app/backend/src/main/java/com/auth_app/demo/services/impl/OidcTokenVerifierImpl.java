@@ -0,0 +1,68 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.OAuth2Properties;
+import com.auth_app.demo.dtos.OidcIdentity;
+import com.auth_app.demo.enums.AuthProvider;
+import com.auth_app.demo.services.OidcTokenVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import org.springframework.stereotype.Service;
+
+import java.security.Key;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies ID tokens with keys from {@link JwksCache}. One parser per configured provider,
+ * pinned to its issuer and client id.
+ */
+@Service
+public class OidcTokenVerifierImpl implements OidcTokenVerifier {
+
+    private final Map<AuthProvider, JwtParser> parsers = new EnumMap<>(AuthProvider.class);
+
+    public OidcTokenVerifierImpl(OAuth2Properties properties, JwksCache jwksCache) {
+        properties.getProviders().forEach((provider, config) -> parsers.put(provider, Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return jwksCache.find(provider, header.getKeyId());
+                    }
+                })
+                .requireIssuer(config.getIssuer())
+                .requireAudience(config.getClientId())
+                .clockSkewSeconds(properties.getClockSkew().toSeconds())
+                .build()));
+    }
+
+    @Override
+    public boolean supports(AuthProvider provider) {
+        return parsers.containsKey(provider);
+    }
+
+    @Override
+    public Optional<OidcIdentity> verify(AuthProvider provider, String idToken) {
+        JwtParser parser = parsers.get(provider);
+        if (parser == null) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(idToken).getPayload();
+            String email = claims.get("email", String.class);
+            if (claims.getSubject() == null || email == null) {
+                return Optional.empty();
+            }
+            // Some providers send email_verified as a string
+            boolean emailVerified = Boolean.parseBoolean(String.valueOf(claims.get("email_verified")));
+            return Optional.of(new OidcIdentity(provider, claims.getSubject(), email, emailVerified,
+                    claims.get("name", String.class)));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.UuidV7;
+import com.auth_app.demo.dtos.IdempotencyClaim;
+import com.auth_app.demo.dtos.StoredResponse;
+import com.auth_app.demo.entities.IdempotencyKey;
+import com.auth_app.demo.repositories.IdempotencyKeyRepository;
+import com.auth_app.demo.services.IdempotencyStore;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Idempotency keys in the idempotency_keys table, shared by all instances.
+ * <p>
+ * A claim is an {@code INSERT ... ON CONFLICT DO NOTHING}; the instance whose insert lands
+ * executes the request. Duplicates poll the row with a short backoff until a response appears,
+ * and hold no connection between polls. Every step is its own short transaction.
+ */
+public class PostgresIdempotencyStore implements IdempotencyStore {
+
+    private static final long MIN_POLL_MILLIS = 10;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    public PostgresIdempotencyStore(IdempotencyKeyRepository repository, PlatformTransactionManager transactionManager,
+                                    Duration ttl, Duration lockTimeout) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public IdempotencyClaim claim(String key, byte[] fingerprint, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        long pollMillis = MIN_POLL_MILLIS;
+        while (true) {
+            Instant now = Instant.now();
+            UUID owner = UuidV7.generate();
+            Integer inserted = transactionTemplate.execute(status ->
+                    repository.insertClaim(key, owner, fingerprint, now.plus(lockTimeout), now));
+            if (inserted != null && inserted == 1) {
+                return IdempotencyClaim.acquired(key, owner);
+            }
+
+            IdempotencyKey existing = repository.findById(key).orElse(null);
+            if (existing == null) {
+                continue;
+            }
+            if (!existing.getExpiresAt().isAfter(now)) {
+                // Stale claim or expired response
+                transactionTemplate.execute(status -> repository.deleteIfExpired(key, now));
+                continue;
+            }
+            if (!Arrays.equals(existing.getFingerprint(), fingerprint)) {
+                return IdempotencyClaim.mismatch();
+            }
+            if (existing.getStatus() != null) {
+                return IdempotencyClaim.replay(new StoredResponse(
+                        existing.getStatus(), existing.getContentType(), existing.getBody()));
+            }
+            if (System.nanoTime() >= deadline) {
+                return IdempotencyClaim.inProgress();
+            }
+            try {
+                Thread.sleep(Math.min(pollMillis, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return IdempotencyClaim.inProgress();
+            }
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    @Override
+    public void complete(IdempotencyClaim claim, StoredResponse response) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        transactionTemplate.execute(status -> repository.complete(claim.getKey(), claim.getOwner(),
+                response.getStatus(), response.getContentType(), response.getBody(), expiresAt));
+    }
+
+    @Override
+    public void release(IdempotencyClaim claim) {
+        transactionTemplate.execute(status -> repository.release(claim.getKey(), claim.getOwner()));
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteExpired(now));
+        return deleted != null ? deleted : 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.OpaqueTokens;
+import com.auth_app.demo.common.UuidV7;
+import com.auth_app.demo.config.JwtProperties;
+import com.auth_app.demo.config.RefreshTokenProperties;
+import com.auth_app.demo.dtos.RotatedRefreshTokenDto;
+import com.auth_app.demo.entities.RefreshToken;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.repositories.RefreshTokenRepository;
+import com.auth_app.demo.services.RefreshTokenService;
+import com.auth_app.demo.services.TokenRevocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens stored by SHA-256 hash.
+ * <p>
+ * A successful rotation is a single statement: the indexed lookup of the presented hash, marking
+ * it used, inserting the successor and reading the user's email and roles happen in one CTE.
+ * Only failed rotations read the row again to tell a reused token (revoke the family) from an
+ * unknown or expired one.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtProperties jwtProperties;
+    private final RefreshTokenProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   TokenRevocationService tokenRevocationService,
+                                   JwtProperties jwtProperties,
+                                   RefreshTokenProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.jwtProperties = jwtProperties;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public String issue(UUID userId) {
+        String raw = OpaqueTokens.generate();
+        Instant now = Instant.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(OpaqueTokens.hash(raw))
+                .userId(userId)
+                .familyId(UUID.randomUUID())
+                .createdAt(now)
+                .expiresAt(now.plusSeconds(jwtProperties.getRefreshTtlSeconds()))
+                .build());
+        return raw;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = BusinessException.class)
+    public RotatedRefreshTokenDto rotate(String rawToken) {
+        String hash = OpaqueTokens.hash(rawToken);
+        String next = OpaqueTokens.generate();
+        Instant now = Instant.now();
+        RefreshTokenRepository.Rotated rotated = refreshTokenRepository
+                .rotate(hash, UuidV7.generate(), OpaqueTokens.hash(next), now.plusSeconds(jwtProperties.getRefreshTtlSeconds()), now)
+                .orElseThrow(() -> rejected(hash));
+
+        // Logout-everywhere and password changes move the user's watermark past older families
+        if (tokenRevocationService.isRevoked(rotated.getUserId(), null, rotated.getPreviousIssuedAt())) {
+            refreshTokenRepository.revokeFamily(rotated.getFamilyId(), now);
+            throw invalid();
+        }
+        List<String> roles = rotated.getRoles() != null ? List.of(rotated.getRoles().split(",")) : List.of();
+        return new RotatedRefreshTokenDto(rotated.getUserId(), rotated.getFamilyId(), rotated.getEmail(), roles, next);
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(OpaqueTokens.hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now()));
+    }
+
+    @Override
+    public long refreshTokenTtlSeconds() {
+        return jwtProperties.getRefreshTtlSeconds();
+    }
+
+    /**
+     * Deletes expired tokens in chunks, one short transaction per chunk.
+     */
+    @Scheduled(initialDelayString = "${app.security.refresh-tokens.purge-interval:PT15M}",
+            fixedDelayString = "${app.security.refresh-tokens.purge-interval:PT15M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int batchSize = properties.getPurgeBatchSize();
+        long total = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status ->
+                    refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+            deleted = count != null ? count : 0;
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.debug("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    /**
+     * Builds the failure for a token the rotate statement did not accept, revoking the family
+     * when it is a consumed token being replayed.
+     */
+    private BusinessException rejected(String hash) {
+        return refreshTokenRepository.findByTokenHash(hash)
+                .filter(token -> token.getUsedAt() != null && token.getRevokedAt() == null)
+                .map(token -> {
+                    log.warn("Refresh token reuse detected for user {}, family {}", token.getUserId(), token.getFamilyId());
+                    refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now());
+                    tokenRevocationService.revokeAllForUser(token.getUserId());
+                    return new BusinessException(ErrorCode.AUTH_REFRESH_TOKEN_REUSED, HttpStatus.UNAUTHORIZED);
+                })
+                .orElseGet(RefreshTokenServiceImpl::invalid);
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(ErrorCode.AUTH_REFRESH_TOKEN_INVALID, HttpStatus.UNAUTHORIZED);
+    }
+}
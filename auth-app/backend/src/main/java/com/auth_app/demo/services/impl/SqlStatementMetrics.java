@@ -0,0 +1,299 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.RequestIdFilter;
+import com.auth_app.demo.config.SqlMetricsProperties;
+import com.auth_app.demo.dtos.SqlStatementStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-statement-shape SQL statistics, fed by {@link com.auth_app.demo.config.MeteredDataSource}.
+ * <p>
+ * A shape is the statement text with literals replaced and parameter lists collapsed, so
+ * {@code in (?, ?)} and {@code in (?, ?, ?)} count as one. Each shape gets a {@code db.statements}
+ * timer and a {@code db.statements.rows} summary tagged with a short id; connection checkouts are
+ * timed as {@code db.connection.acquire}. {@link #snapshot()} backs the {@code sqlstatements}
+ * actuator endpoint and lets tests assert how many statements an operation issued.
+ */
+@Component
+public class SqlStatementMetrics implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMetrics.class);
+
+    private static final Duration[] STATEMENT_BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1)};
+    private static final Duration[] ACQUIRE_BUCKETS = {
+            Duration.ofNanos(100_000), Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofMillis(100),
+            Duration.ofSeconds(1)};
+
+    private final long slowNanos;
+    private final int maxShapes;
+    /** Raw SQL to shape; Hibernate reuses the same strings, so this skips normalizing on each execution. */
+    private final ConcurrentHashMap<String, Shape> bySql = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Shape> byNormalized = new ConcurrentHashMap<>();
+    private final Shape other = new Shape("other", "(shapes beyond app.sql-metrics.max-shapes)");
+    private final LongAdder acquireCount = new LongAdder();
+    private volatile MeterRegistry registry;
+    private volatile Timer acquireTimer;
+
+    public SqlStatementMetrics(SqlMetricsProperties properties) {
+        this.slowNanos = properties.getSlowQueryThreshold().toNanos();
+        this.maxShapes = properties.getMaxShapes();
+    }
+
+    /**
+     * The shape a statement is recorded under.
+     */
+    public Shape shapeOf(String sql) {
+        Shape shape = bySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = byNormalized.get(normalized);
+        if (shape == null) {
+            if (byNormalized.size() >= maxShapes) {
+                shape = other;
+            } else {
+                shape = byNormalized.computeIfAbsent(normalized, key -> register(new Shape(idOf(key), key)));
+            }
+        }
+        if (bySql.size() < maxShapes * 4) {
+            bySql.putIfAbsent(sql, shape);
+        }
+        return shape;
+    }
+
+    public void recordExecution(Shape shape, long nanos) {
+        shape.executions.increment();
+        shape.totalNanos.add(nanos);
+        shape.maxNanos.accumulate(nanos);
+        Timer timer = shape.timer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (nanos >= slowNanos) {
+            shape.slow.increment();
+            log.warn("Slow query: {} ms [{}] requestId={} - {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), shape.id, RequestIdFilter.getCurrentRequestId(), shape.sql);
+        }
+    }
+
+    public void recordRows(Shape shape, long rows) {
+        shape.rows.add(rows);
+        DistributionSummary summary = shape.rowSummary;
+        if (summary != null) {
+            summary.record(rows);
+        }
+    }
+
+    public void recordConnectionAcquire(long nanos) {
+        acquireCount.increment();
+        Timer timer = acquireTimer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * All shapes, most total time first.
+     */
+    public List<SqlStatementStats> snapshot() {
+        List<Shape> shapes = new ArrayList<>(byNormalized.values());
+        if (other.executions.sum() > 0) {
+            shapes.add(other);
+        }
+        return shapes.stream()
+                .map(Shape::stats)
+                .sorted(Comparator.comparingDouble(SqlStatementStats::getTotalMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * Statements executed since startup; tests compare this before and after an operation.
+     */
+    public long executions() {
+        long total = other.executions.sum();
+        for (Shape shape : byNormalized.values()) {
+            total += shape.executions.sum();
+        }
+        return total;
+    }
+
+    public long connectionAcquisitions() {
+        return acquireCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.acquireTimer = Timer.builder("db.connection.acquire")
+                .description("Time to check a connection out of the pool")
+                .serviceLevelObjectives(ACQUIRE_BUCKETS)
+                .register(registry);
+        this.registry = registry;
+        // Shapes seen during startup, before the registry existed
+        byNormalized.values().forEach(this::register);
+        register(other);
+    }
+
+    private Shape register(Shape shape) {
+        MeterRegistry registry = this.registry;
+        if (registry != null && shape.timer == null) {
+            shape.timer = Timer.builder("db.statements")
+                    .tag("statement", shape.id)
+                    .description("Statement execution time by statement shape")
+                    .serviceLevelObjectives(STATEMENT_BUCKETS)
+                    .register(registry);
+            shape.rowSummary = DistributionSummary.builder("db.statements.rows")
+                    .tag("statement", shape.id)
+                    .description("Rows returned or affected by statement shape")
+                    .register(registry);
+        }
+        return shape;
+    }
+
+    /**
+     * Collapses whitespace, replaces string and numeric literals with {@code ?} and reduces
+     * parenthesized parameter lists to a single {@code ?}.
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (!out.isEmpty() && i < n) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (c == '\'') {
+                i++;
+                while (i < n) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+                continue;
+            }
+            boolean identifierBefore = !out.isEmpty() && isIdentifierPart(out.charAt(out.length() - 1));
+            if (Character.isDigit(c) && !identifierBefore) {
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+                continue;
+            }
+            out.append(c);
+            i++;
+            if (c == ')') {
+                collapseList(out);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Turns a just-closed {@code (?, ?, ?)} at the end of {@code out} into {@code (?)}.
+     */
+    private static void collapseList(StringBuilder out) {
+        int open = out.lastIndexOf("(");
+        if (open < 0) {
+            return;
+        }
+        for (int j = open + 1; j < out.length() - 1; j++) {
+            char c = out.charAt(j);
+            if (c != '?' && c != ',' && c != ' ') {
+                return;
+            }
+        }
+        out.setLength(open);
+        out.append("(?)");
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * {@code <verb> <first table> <hash>}, short enough for a metrics tag.
+     */
+    static String idOf(String normalized) {
+        String lower = normalized.toLowerCase(Locale.ROOT);
+        int space = lower.indexOf(' ');
+        String verb = space > 0 ? lower.substring(0, space) : lower;
+        String table = tableAfter(lower, switch (verb) {
+            case "insert" -> " into ";
+            case "update" -> "update ";
+            default -> " from ";
+        });
+        return verb + (table != null ? " " + table : "") + " " + String.format("%08x", normalized.hashCode());
+    }
+
+    private static String tableAfter(String sql, String keyword) {
+        int start = sql.indexOf(keyword);
+        if (start < 0) {
+            return null;
+        }
+        start += keyword.length();
+        int end = start;
+        while (end < sql.length() && (isIdentifierPart(sql.charAt(end)) || sql.charAt(end) == '.')) {
+            end++;
+        }
+        return end > start ? sql.substring(start, end) : null;
+    }
+
+    /**
+     * Counters for one statement shape.
+     */
+    public static final class Shape {
+
+        private final String id;
+        private final String sql;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private volatile Timer timer;
+        private volatile DistributionSummary rowSummary;
+
+        private Shape(String id, String sql) {
+            this.id = id;
+            this.sql = sql;
+        }
+
+        private SqlStatementStats stats() {
+            return new SqlStatementStats(id, sql, executions.sum(), totalNanos.sum() / 1e6,
+                    maxNanos.get() / 1e6, rows.sum(), slow.sum());
+        }
+    }
+}
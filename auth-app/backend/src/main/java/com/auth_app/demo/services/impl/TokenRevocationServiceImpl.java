@@ -0,0 +1,151 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.RevocationProperties;
+import com.auth_app.demo.entities.RevokedToken;
+import com.auth_app.demo.entities.UserTokenWatermark;
+import com.auth_app.demo.repositories.RevokedTokenRepository;
+import com.auth_app.demo.repositories.UserTokenWatermarkRepository;
+import com.auth_app.demo.services.TokenRevocationService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation state held in two concurrent maps, backed by Postgres.
+ * <p>
+ * Writes go to the database and reach memory once their transaction commits, so a rolled-back
+ * password change or logout revokes nothing. State is loaded before the application accepts
+ * requests, revocations made by other instances are pulled in every sync interval, and
+ * expired entries are pruned from both memory and the database.
+ * <p>
+ * Watermarks are compared in milliseconds: a token issued in the same second as a revocation,
+ * but after it, stays valid.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    /** Re-read a little before the last sync to tolerate clock skew between instances. */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenWatermarkRepository watermarkRepository;
+    private final RevocationProperties properties;
+
+    /** userId -> tokens issued at or before this epoch millisecond are revoked. */
+    private final ConcurrentHashMap<UUID, Long> notBeforeByUser = new ConcurrentHashMap<>();
+    /** jti -> epoch second at which the token expires anyway. */
+    private final ConcurrentHashMap<UUID, Long> deniedUntilByJti = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      UserTokenWatermarkRepository watermarkRepository,
+                                      RevocationProperties properties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void load() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        watermarkRepository.findByNotBeforeAfter(now.minus(properties.getMaxTokenLifetime())).forEach(this::remember);
+        lastSync = now;
+        log.info("Loaded {} revoked tokens and {} user watermarks", deniedUntilByJti.size(), notBeforeByUser.size());
+    }
+
+    @Override
+    public boolean isRevoked(UUID userId, UUID jti, long issuedAtEpochMilli) {
+        Long notBefore = notBeforeByUser.get(userId);
+        if (notBefore != null && issuedAtEpochMilli <= notBefore) {
+            return true;
+        }
+        return jti != null && deniedUntilByJti.containsKey(jti);
+    }
+
+    @Override
+    @Transactional
+    public void revokeToken(UUID jti, UUID userId, Instant expiresAt) {
+        revokedTokenRepository.insertIfAbsent(jti, userId, expiresAt, Instant.now());
+        afterCommit(() -> deniedUntilByJti.put(jti, expiresAt.getEpochSecond()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(UUID userId) {
+        Instant now = Instant.now();
+        watermarkRepository.upsert(userId, now, now);
+        afterCommit(() -> notBeforeByUser.merge(userId, now.toEpochMilli(), Math::max));
+    }
+
+    /**
+     * Pulls in revocations written by other instances since the last sync.
+     */
+    @Scheduled(initialDelayString = "${app.security.revocation.sync-interval:PT30S}",
+            fixedDelayString = "${app.security.revocation.sync-interval:PT30S}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.minus(SYNC_OVERLAP);
+        revokedTokenRepository.findByRevokedAtAfter(since).forEach(this::remember);
+        watermarkRepository.findByUpdatedAtAfter(since).forEach(this::remember);
+        lastSync = now;
+    }
+
+    /**
+     * Drops deny-list entries of expired tokens and watermarks older than any live token.
+     */
+    @Scheduled(initialDelayString = "${app.security.revocation.prune-interval:PT10M}",
+            fixedDelayString = "${app.security.revocation.prune-interval:PT10M}")
+    @Transactional
+    public void prune() {
+        Instant now = Instant.now();
+        long nowSeconds = now.getEpochSecond();
+        Instant watermarkCutoff = now.minus(properties.getMaxTokenLifetime());
+        long cutoffMillis = watermarkCutoff.toEpochMilli();
+
+        deniedUntilByJti.values().removeIf(expiresAt -> expiresAt < nowSeconds);
+        notBeforeByUser.values().removeIf(notBefore -> notBefore < cutoffMillis);
+        int tokens = revokedTokenRepository.deleteExpired(now);
+        int watermarks = watermarkRepository.deleteOlderThan(watermarkCutoff);
+        if (tokens > 0 || watermarks > 0) {
+            log.debug("Pruned {} revoked tokens and {} user watermarks", tokens, watermarks);
+        }
+    }
+
+    /**
+     * Runs the memory update once the surrounding transaction commits, or at once without one.
+     */
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private void remember(RevokedToken token) {
+        deniedUntilByJti.put(token.getJti(), token.getExpiresAt().getEpochSecond());
+    }
+
+    private void remember(UserTokenWatermark watermark) {
+        notBeforeByUser.merge(watermark.getUserId(), watermark.getNotBefore().toEpochMilli(), Math::max);
+    }
+}
@@ -0,0 +1,120 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.SingleFlight;
+import com.auth_app.demo.config.UserReadCoalescingProperties;
+import com.auth_app.demo.dtos.UserResDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer for user reads by id and by email.
+ * <p>
+ * When a popular user is requested by many clients at once, only the first request loads it;
+ * the others wait for that load, so they hold no connection. Every caller gets its own copy of
+ * the loaded DTO, with an unmodifiable role set, so no caller can change what another returns.
+ * Counters are published as {@code users.reads.*}, tagged with the lookup key.
+ * <p>
+ * Writes made through this instance call {@link #invalidateAfterCommit()}, so a read that
+ * starts after the write commits never joins a load that began before it. A write committed by
+ * another instance can still be missed by a read that joins a load already in flight here,
+ * just as it could by a read that started a moment earlier.
+ */
+@Component
+public class UserReadCoalescer implements MeterBinder {
+
+    private final UserReadCoalescingProperties properties;
+    private final SingleFlight<UUID, Optional<UserResDto>> byId;
+    private final SingleFlight<String, Optional<UserResDto>> byEmail;
+
+    public UserReadCoalescer(UserReadCoalescingProperties properties) {
+        this.properties = properties;
+        this.byId = new SingleFlight<>(properties.getTimeout());
+        this.byEmail = new SingleFlight<>(properties.getTimeout());
+    }
+
+    public Optional<UserResDto> byId(UUID id, Supplier<Optional<UserResDto>> loader) {
+        return coalesce(byId, id, loader);
+    }
+
+    public Optional<UserResDto> byEmail(String email, Supplier<Optional<UserResDto>> loader) {
+        return coalesce(byEmail, email, loader);
+    }
+
+    private <K> Optional<UserResDto> coalesce(SingleFlight<K, Optional<UserResDto>> flight, K key,
+                                             Supplier<Optional<UserResDto>> loader) {
+        // Inside a transaction the caller may need to see its own uncommitted writes
+        if (!properties.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        return flight.execute(key, loader).map(UserReadCoalescer::copyOf);
+    }
+
+    /**
+     * Call from a transaction that changes users. Once it commits, reads of every key start a
+     * new load; keys are not tracked individually because bulk and native updates do not know
+     * every email they affect, and writes are rare next to reads. Outside a transaction the
+     * loads in flight are detached immediately.
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        byId.forgetAll();
+        byEmail.forgetAll();
+    }
+
+    private static UserResDto copyOf(UserResDto user) {
+        return user.toBuilder()
+                .roles(user.getRoles() != null ? Set.copyOf(user.getRoles()) : null)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "id", byId);
+        bind(registry, "email", byEmail);
+    }
+
+    private static void bind(MeterRegistry registry, String key, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("users.reads.loads", flight, SingleFlight::getLoads)
+                .tag("key", key)
+                .description("User loads that reached the database")
+                .register(registry);
+        FunctionCounter.builder("users.reads.coalesced", flight, SingleFlight::getCoalesced)
+                .tag("key", key)
+                .description("User reads answered by a concurrent load of the same key")
+                .register(registry);
+        FunctionCounter.builder("users.reads.failures", flight, SingleFlight::getFailures)
+                .tag("key", key)
+                .description("Shared user loads that failed")
+                .register(registry);
+        FunctionCounter.builder("users.reads.timeouts", flight, SingleFlight::getTimeouts)
+                .tag("key", key)
+                .description("User reads that gave up waiting for a concurrent load")
+                .register(registry);
+        Gauge.builder("users.reads.in.flight", flight, SingleFlight::getInFlight)
+                .tag("key", key)
+                .description("User loads currently in flight")
+                .register(registry);
+    }
+}
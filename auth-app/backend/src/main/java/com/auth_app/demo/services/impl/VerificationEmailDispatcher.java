@@ -0,0 +1,153 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.EmailVerificationProperties;
+import com.auth_app.demo.entities.OutboxEmail;
+import com.auth_app.demo.repositories.OutboxEmailRepository;
+import com.auth_app.demo.services.VerificationMailSender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends queued verification emails in the background.
+ * <p>
+ * A batch is leased in one short transaction ({@code FOR UPDATE SKIP LOCKED}, then
+ * available_at moved to the end of the lease) and sent after that commits, so no row lock or
+ * connection is held while talking to the mail server. Any number of instances can dispatch
+ * concurrently. Delivery is at least once: an instance that dies between sending and deleting
+ * leaves the email to be sent again when its lease runs out.
+ * <p>
+ * Delivered emails are deleted; failures are retried with exponential backoff until
+ * {@code maxAttempts}, then left in the table as failed, without their token.
+ * <p>
+ * Batches are drained on the dispatcher's own thread, never on the shared scheduler: a slow
+ * mail server or a long backlog must not hold up revocation and email-filter syncs.
+ */
+@Component
+public class VerificationEmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificationEmailDispatcher.class);
+
+    private final OutboxEmailRepository outboxRepository;
+    private final VerificationMailSender mailSender;
+    private final EmailVerificationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("verification-email-dispatcher").daemon().factory());
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public VerificationEmailDispatcher(OutboxEmailRepository outboxRepository,
+                                       VerificationMailSender mailSender,
+                                       EmailVerificationProperties properties,
+                                       PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Hands a drain to the dispatcher thread unless one is still running, and returns at once.
+     */
+    @Scheduled(initialDelayString = "${app.email-verification.poll-interval:PT1S}",
+            fixedDelayString = "${app.email-verification.poll-interval:PT1S}")
+    public void dispatch() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        sender.execute(() -> {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.error("Verification email dispatch failed", e);
+            } finally {
+                draining.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Sends due emails on the calling thread, batch by batch, until a batch comes back short.
+     */
+    void drain() {
+        int claimed;
+        do {
+            List<OutboxEmail> batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null) {
+                return;
+            }
+            batch.forEach(this::send);
+            claimed = batch.size();
+        } while (claimed == properties.getBatchSize());
+    }
+
+    private List<OutboxEmail> claimBatch() {
+        Instant now = Instant.now();
+        return outboxRepository.claimDue(now, now.plus(properties.getLease()), properties.getBatchSize());
+    }
+
+    private void send(OutboxEmail email) {
+        try {
+            mailSender.sendVerificationEmail(email.getRecipient(),
+                    properties.getLinkPrefix() + email.getVerificationToken());
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> scheduleRetry(email.getId(), e));
+            return;
+        }
+        outboxRepository.deleteById(email.getId());
+    }
+
+    /**
+     * The claim already counted the attempt. A row deleted meanwhile (superseded by a newer
+     * verification request) is left alone.
+     */
+    private void scheduleRetry(UUID id, RuntimeException error) {
+        outboxRepository.findById(id).ifPresent(email -> {
+            Instant now = Instant.now();
+            int attempts = email.getAttempts();
+            email.setLastError(truncate(error.toString()));
+            if (attempts >= properties.getMaxAttempts()) {
+                email.setFailedAt(now);
+                email.setVerificationToken(null);
+                log.error("Giving up on verification email {} for user {} after {} attempts: {}",
+                        email.getId(), email.getUserId(), attempts, error.toString());
+                return;
+            }
+            email.setAvailableAt(now.plus(backoff(attempts)));
+            log.warn("Verification email {} failed (attempt {}), retrying later: {}", email.getId(), attempts, error.toString());
+        });
+    }
+
+    /**
+     * retryBackoff * 2^(attempts - 1), capped at maxRetryBackoff.
+     */
+    Duration backoff(int attempts) {
+        Duration max = properties.getMaxRetryBackoff();
+        Duration delay = properties.getRetryBackoff();
+        for (int i = 1; i < attempts && delay.compareTo(max) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(max) < 0 ? delay : max;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,56 @@
+-- Postgres-only DDL that Hibernate cannot express. Runs after the Hibernate schema update
+-- (spring.jpa.defer-datasource-initialization) on every start, so it must be idempotent.
+-- Statements are separated by a caret before the semicolon, since the DO block contains plain semicolons.
+
+-- Uniqueness applies to non-deleted users only, so a deleted account's email can register again
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email_active
+    ON users (email) WHERE deleted_at IS NULL^;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_provider_active
+    ON users (provider, provider_id) WHERE deleted_at IS NULL^;
+
+-- Only deleted rows are indexed; the purge job scans nothing else
+CREATE INDEX IF NOT EXISTS idx_users_deleted_at
+    ON users (deleted_at) WHERE deleted_at IS NOT NULL^;
+
+-- Emails created or changed since the last email filter sync
+CREATE INDEX IF NOT EXISTS idx_users_updated_at
+    ON users (updated_at)^;
+
+-- Cleared on emails that ran out of attempts; created NOT NULL by earlier schema versions
+ALTER TABLE email_outbox ALTER COLUMN verification_token DROP NOT NULL^;
+
+-- Full-table unique constraints created by earlier schema versions
+ALTER TABLE users DROP CONSTRAINT IF EXISTS uk_users_provider_provider_id^;
+
+DO $$
+DECLARE
+    constraint_name text;
+BEGIN
+    FOR constraint_name IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'users'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 'email'
+    LOOP
+        EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$^;
+
+-- Trigram indexes for substring search by email and name (GET /api/users/search).
+-- GiST rather than GIN: besides LIKE it serves nearest-neighbour ordering by trigram
+-- distance (<->), so the closest matches are read first and the scan stops at the cap.
+-- pg_trgm is a trusted extension, so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm^;
+
+DROP INDEX IF EXISTS idx_users_email_trgm^;
+DROP INDEX IF EXISTS idx_users_name_trgm^;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm_gist
+    ON users USING gist (lower(email) gist_trgm_ops) WHERE deleted_at IS NULL^;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm_gist
+    ON users USING gist (lower(name) gist_trgm_ops) WHERE deleted_at IS NULL^;
@@ -3,7 +3,7 @@ package com.auth_app.demo;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "security.jwt.secret=integration-test-secret-0123456789abcdef")
 class AuthAppApplicationTests {
 
 	@Test
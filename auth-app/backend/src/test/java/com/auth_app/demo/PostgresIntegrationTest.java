@@ -0,0 +1,102 @@
+package com.auth_app.demo;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+/**
+ * Base for tests that need the real schema: native PostgreSQL queries, partial indexes and the
+ * whole HTTP stack through MockMvc.
+ * <p>
+ * One embedded PostgreSQL is started per test JVM; subclasses share it and, having the same
+ * configuration, one application context. Rows are seeded with plain SQL and requests carry a
+ * mock principal, so no test pays for BCrypt. Tests use unique emails instead of cleaning up.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.auth_app.demo=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "security.jwt.secret=integration-test-secret-0123456789abcdef",
+        // Tests that depend on these jobs run them directly
+        "app.email-filter.sync-interval=1h",
+        "app.email-verification.poll-interval=1h"
+})
+@AutoConfigureMockMvc
+public abstract class PostgresIntegrationTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres().getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Embedded PostgreSQL did not start", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The JVM is exiting anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    /**
+     * Inserts an active local user with the given roles, creating the roles if needed.
+     */
+    protected UUID insertUser(String name, String email, String... roles) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO users (id, name, email, email_verified, is_active, provider, created_at, updated_at, version)
+                VALUES (?, ?, ?, TRUE, TRUE, 'LOCAL', now(), now(), 0)
+                """, id, name, email);
+        for (String role : roles) {
+            jdbc.update("INSERT INTO roles (id, name) VALUES (?, ?) ON CONFLICT (name) DO NOTHING", UUID.randomUUID(), role);
+            jdbc.update("INSERT INTO user_roles (user_id, role_id) SELECT ?, id FROM roles WHERE name = ?", id, role);
+        }
+        return id;
+    }
+
+    protected static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@example.com";
+    }
+
+    protected static RequestPostProcessor as(String username, String... roles) {
+        return user(username).authorities(Arrays.stream(roles).map(SimpleGrantedAuthority::new).toList());
+    }
+
+    protected static RequestPostProcessor asAdmin() {
+        return as("admin@example.com", "ADMIN");
+    }
+}
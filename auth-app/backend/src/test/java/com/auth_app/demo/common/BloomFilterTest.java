@@ -0,0 +1,58 @@
+package com.auth_app.demo.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    private static final int ENTRIES = 200_000;
+
+    @Test
+    @DisplayName("Every inserted email is reported as possibly present")
+    void noFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < ENTRIES; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("False-positive rate stays close to the configured target at full capacity")
+    void falsePositiveRateNearTarget() {
+        BloomFilter filter = BloomFilter.create(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            if (filter.mightContain("unknown" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / ENTRIES).isLessThan(0.015);
+    }
+
+    @Test
+    @DisplayName("Sizing follows the optimal bits-per-entry and hash-count formulas")
+    void sizing() {
+        BloomFilter filter = BloomFilter.create(10_000_000, 0.01);
+
+        // ~9.59 bits per entry and 7 hash functions for 1%
+        assertThat(filter.bitSize() / 8).isBetween(11_900_000L, 12_100_000L);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
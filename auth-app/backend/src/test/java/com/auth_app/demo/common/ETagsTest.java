@@ -0,0 +1,58 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ETagsTest {
+
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    @DisplayName("A strong tag of the resource yields its version")
+    void strongTag() {
+        assertThat(ETags.parseVersions(ETags.of(id, 3L), id)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Weak tags and tags of other ids never match")
+    void weakAndForeignTagsMatchNothing() {
+        assertThat(ETags.parseVersions("W/" + ETags.of(id, 3L), id)).isEmpty();
+        assertThat(ETags.parseVersions(ETags.of(UUID.randomUUID(), 3L), id)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A list matches any of its strong tags for the resource")
+    void listOfTags() {
+        String header = "W/" + ETags.of(id, 1L) + ", " + ETags.of(UUID.randomUUID(), 2L) + ","
+                + ETags.of(id, 4L) + " ,\t" + ETags.of(id, 5L);
+
+        assertThat(ETags.parseVersions(header, id)).containsExactlyInAnyOrder(4L, 5L);
+    }
+
+    @Test
+    @DisplayName("An absent header or a * anywhere in the list means no precondition")
+    void wildcard() {
+        assertThat(ETags.parseVersions(null, id)).isNull();
+        assertThat(ETags.parseVersions(" ", id)).isNull();
+        assertThat(ETags.parseVersions("*", id)).isNull();
+        assertThat(ETags.parseVersions(ETags.of(id, 1L) + ", *", id)).isNull();
+    }
+
+    @Test
+    @DisplayName("Unquoted, unterminated or non-numeric tags are rejected")
+    void malformed() {
+        for (String header : new String[]{"abc", "\"" + id + ":1", "\"not-a-version\"", "\"" + id + ":x\"",
+                ETags.of(id, 1L) + "x", "W/abc"}) {
+            assertThatThrownBy(() -> ETags.parseVersions(header, id))
+                    .as(header)
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Malformed If-Match header");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.config.UserPrinciple;
+import com.auth_app.demo.entities.Role;
+import com.auth_app.demo.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoleSetTest {
+
+    @Test
+    @DisplayName("Equal role sets are the same instance, whatever they were built from")
+    void interned() {
+        RoleSet fromNames = RoleSet.of(List.of("USER", "ADMIN"));
+
+        assertThat(RoleSet.of(Set.of("ADMIN", "USER"))).isSameAs(fromNames);
+        assertThat(RoleSet.parse("ADMIN,USER")).isSameAs(fromNames);
+        assertThat(RoleSet.ofAuthorities(fromNames.getAuthorities())).isSameAs(fromNames);
+        assertThat(RoleSet.ofAuthorities(List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN"))))
+                .isSameAs(fromNames);
+        assertThat(RoleSet.parse(null)).isSameAs(RoleSet.EMPTY);
+        assertThat(fromNames.getNames()).containsExactlyInAnyOrder("USER", "ADMIN");
+        assertThatThrownBy(() -> fromNames.getNames().add("OTHER")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Membership is a bit test and unknown names are not registered")
+    void membership() {
+        RoleSet user = RoleSet.of(List.of("USER"));
+
+        assertThat(user.contains("USER")).isTrue();
+        assertThat(user.contains("ADMIN")).isFalse();
+        assertThat(user.contains("never-registered-role")).isFalse();
+        assertThat(RoleSet.bitIfKnown("never-registered-role")).isZero();
+        assertThat(user.containsAny(RoleSet.bit("USER") | RoleSet.bit("ADMIN"))).isTrue();
+        assertThat(RoleSet.EMPTY.containsAny(RoleSet.bit("USER"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Users share authority lists and reflect role changes")
+    void userRoles() {
+        User first = user("USER", "ADMIN");
+        User second = user("ADMIN", "USER");
+
+        assertThat(new UserPrinciple(first).getAuthorities()).isSameAs(new UserPrinciple(second).getAuthorities());
+        assertThat(first.hasRole("ADMIN")).isTrue();
+
+        first.removeRole(first.getRoles().stream().filter(r -> r.getName().equals("ADMIN")).findFirst().orElseThrow());
+
+        assertThat(first.hasRole("ADMIN")).isFalse();
+        assertThat(first.getRoleSet()).isSameAs(RoleSet.of(List.of("USER")));
+    }
+
+    @Test
+    @DisplayName("A deserialized authority resolves to the interned instance")
+    void serializationKeepsInterning() throws Exception {
+        GrantedAuthority authority = RoleSet.of(List.of("USER")).getAuthorities().get(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(authority);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(in.readObject()).isSameAs(authority);
+        }
+    }
+
+    @Test
+    @DisplayName("Resolving authorities and checking roles of a loaded user does not allocate")
+    void allocationFree() {
+        User user = user("USER", "ADMIN");
+        UserPrinciple principle = new UserPrinciple(user);
+        for (int i = 0; i < 100_000; i++) {
+            principle.getAuthorities();
+            user.hasRole("ADMIN");
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int found = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            found += principle.getAuthorities().size();
+            found += user.hasRole("ADMIN") ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(found).isEqualTo(3_000_000);
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+
+    private static User user(String... roleNames) {
+        Set<Role> roles = new HashSet<>();
+        for (String name : roleNames) {
+            roles.add(new Role(name));
+        }
+        return User.builder().email("user@example.com").roles(roles).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    @DisplayName("Rank and id survive the round trip bit for bit")
+    void roundTrip() {
+        UUID id = UUID.randomUUID();
+        double rank = 1 + (double) 0.2857143f;
+
+        SearchCursor decoded = SearchCursor.decode(new SearchCursor(rank, id).encode());
+
+        assertThat(Double.doubleToLongBits(decoded.getRank())).isEqualTo(Double.doubleToLongBits(rank));
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+
+    @Test
+    @DisplayName("A missing cursor starts before every row")
+    void missingCursorIsFirstPage() {
+        assertThat(SearchCursor.decode(null)).isSameAs(SearchCursor.FIRST);
+        assertThat(SearchCursor.decode(" ")).isSameAs(SearchCursor.FIRST);
+    }
+
+    @Test
+    @DisplayName("Tampered cursors are rejected as bad requests")
+    void malformedCursorRejected() {
+        assertThatThrownBy(() -> SearchCursor.decode("not base64!"))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> SearchCursor.decode(encode("0.5")))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> SearchCursor.decode(encode("Infinity:" + UUID.randomUUID())))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
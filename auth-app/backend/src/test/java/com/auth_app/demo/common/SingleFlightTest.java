@@ -0,0 +1,143 @@
+package com.auth_app.demo.common;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers for one key share a single load and its result")
+    void sharesOneLoad() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Object value = new Object();
+
+        List<Future<Object>> results = submitAll(() -> flight.execute("user", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return value;
+        }));
+        waitUntil(() -> flight.getCoalesced() == CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(value);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(flight.getLoads()).isEqualTo(1);
+        assertThat(flight.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("A failed load is rethrown to every waiter")
+    void propagatesFailure() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        List<Future<Object>> results = submitAll(() -> flight.execute("user", () -> {
+            await(release);
+            throw failure;
+        }));
+        waitUntil(() -> flight.getCoalesced() == CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(flight.getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Waiters time out with 503 while the load carries on for its own caller")
+    void waitersTimeOut() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        Future<String> loader = executor.submit(() -> flight.execute("user", () -> {
+            started.countDown();
+            await(release);
+            return "loaded";
+        }));
+        await(started);
+
+        assertThatThrownBy(() -> flight.execute("user", () -> "second load"))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(flight.getTimeouts()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(loader.get(10, TimeUnit.SECONDS)).isEqualTo("loaded");
+    }
+
+    @Test
+    @DisplayName("Nothing is cached and distinct keys never wait on each other")
+    void noCaching() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofSeconds(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("a", loads::incrementAndGet);
+        flight.execute("a", loads::incrementAndGet);
+        flight.execute("b", () -> flight.execute("c", loads::incrementAndGet));
+
+        assertThat(loads).hasValue(3);
+        assertThat(flight.getCoalesced()).isZero();
+    }
+
+    private <T> List<Future<T>> submitAll(Callable<T> call) {
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(call));
+        }
+        return futures;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
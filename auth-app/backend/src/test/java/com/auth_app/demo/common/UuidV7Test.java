@@ -0,0 +1,67 @@
+package com.auth_app.demo.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Ids carry version 7, the RFC variant and the generation time")
+    void layout() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestamp(id)).isBetween(before, after);
+    }
+
+    @Test
+    @DisplayName("Ids increase within a millisecond and when the clock steps back")
+    void monotonic() {
+        long now = System.currentTimeMillis();
+        UUID previous = UuidV7.generate(now);
+        for (int i = 0; i < 10_000; i++) {
+            // Same millisecond, well past the 4096 counter values, then a clock 1s behind
+            UUID next = UuidV7.generate(i < 5_000 ? now : now - 1_000);
+            assertThat(next).isGreaterThan(previous);
+            assertThat(next.toString()).isGreaterThan(previous.toString());
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never receive the same id")
+    void uniqueAcrossThreads() throws Exception {
+        ConcurrentHashMap<UUID, Boolean> seen = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        seen.put(UuidV7.generate(), Boolean.TRUE);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(seen).hasSize(200_000);
+    }
+}
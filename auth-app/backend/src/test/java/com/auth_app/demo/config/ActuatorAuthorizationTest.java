@@ -0,0 +1,36 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.PostgresIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The actuator rules of application.yaml, through the whole security chain.
+ */
+class ActuatorAuthorizationTest extends PostgresIntegrationTest {
+
+    @Test
+    @DisplayName("Metrics and SQL statement totals are ADMIN only")
+    void diagnosticsRequireAdmin() throws Exception {
+        for (String path : new String[]{"/actuator/metrics", "/actuator/sqlstatements", "/actuator/jfr"}) {
+            mockMvc.perform(get(path).with(as("user@example.com", "USER")))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/actuator/metrics").with(asAdmin()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/sqlstatements").with(asAdmin()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Health stays open to any authenticated caller")
+    void healthNeedsAuthenticationOnly() throws Exception {
+        mockMvc.perform(get("/actuator/health").with(as("user@example.com", "USER")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isUnauthorized());
+    }
+}
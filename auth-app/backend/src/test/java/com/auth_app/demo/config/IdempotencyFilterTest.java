@@ -0,0 +1,200 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.services.impl.InMemoryIdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final HandlerExceptionResolver STATUS_ONLY = (request, response, handler, ex) -> {
+        response.setStatus(((BusinessException) ex).getHttpStatus().value());
+        return new ModelAndView();
+    };
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private final IdempotencyFilter filter = new IdempotencyFilter(
+            new InMemoryIdempotencyStore(Duration.ofHours(1), Duration.ofSeconds(30), 1_000),
+            new IdempotencyProperties(), STATUS_ONLY);
+
+    @BeforeEach
+    void signIn() {
+        signInAs("admin@example.com");
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("A retry with the same key replays the stored response without executing again")
+    void replays() throws Exception {
+        MockHttpServletResponse first = send("key-1", "{\"email\":\"a@example.com\"}", created());
+        MockHttpServletResponse retry = send("key-1", "{\"email\":\"a@example.com\"}", created());
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"execution\":1}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Keys are scoped to the caller, and reuse with another body is rejected")
+    void scopedAndFingerprinted() throws Exception {
+        send("key-1", "{}", created());
+        signInAs("other@example.com");
+        send("key-1", "{}", created());
+
+        assertThat(executions).hasValue(2);
+        assertThat(send("key-1", "{\"changed\":true}", created()).getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Role changes are deduplicated; other routes and methods pass through")
+    void onlyListedRoutes() throws Exception {
+        UUID id = UUID.randomUUID();
+        send("DELETE", "/api/users/" + id + "/roles/ADMIN", "key-1", "", created());
+        send("DELETE", "/api/users/" + id + "/roles/ADMIN", "key-1", "", created());
+        send("POST", "/api/users/roles/ADMIN/grant", "key-2", "{}", created());
+        send("POST", "/api/users/roles/ADMIN/grant", "key-2", "{}", created());
+        assertThat(executions).hasValue(2);
+
+        send("PUT", "/api/users/" + id, "key-3", "{}", created());
+        send("PUT", "/api/users/" + id, "key-3", "{}", created());
+        assertThat(executions).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Auth responses are never stored or replayed, even for an authenticated caller")
+    void authRoutesAreNeverStored() throws Exception {
+        send("POST", "/api/auth/refresh", "key-1", "", created());
+        MockHttpServletResponse retry = send("POST", "/api/auth/refresh", "key-1", "", created());
+        send("POST", "/api/auth/login", "key-2", "{}", created());
+        send("POST", "/api/auth/login", "key-2", "{}", created());
+
+        assertThat(executions).hasValue(4);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Anonymous requests are never deduplicated")
+    void anonymousRequestsPassThrough() throws Exception {
+        SecurityContextHolder.clearContext();
+        send("key-1", "{}", created());
+        send("key-1", "{}", created());
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS"))));
+        send("key-1", "{}", created());
+
+        assertThat(executions).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Server errors are not stored, so the retry executes")
+    void serverErrorsAreRetried() throws Exception {
+        send("key-1", "{}", (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        });
+        MockHttpServletResponse retry = send("key-1", "{}", created());
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates wait for the first execution and share its response")
+    void concurrentDuplicatesWait() throws Exception {
+        int callers = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            try {
+                assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                responses.add(executor.submit(() -> {
+                    // The security context is per thread
+                    signInAs("admin@example.com");
+                    return send("key-1", "{}", slow);
+                }));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<MockHttpServletResponse> response : responses) {
+                MockHttpServletResponse result = response.get(10, TimeUnit.SECONDS);
+                assertThat(result.getStatus()).isEqualTo(201);
+                assertThat(result.getContentAsString()).isEqualTo("{\"execution\":1}");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    private FilterChain created() {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setStatus(201);
+            response.getWriter().write("{\"execution\":" + execution + "}");
+        };
+    }
+
+    private static void signInAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private MockHttpServletResponse send(String key, String body, FilterChain chain) throws Exception {
+        return send("POST", "/api/users", key, body, chain);
+    }
+
+    private MockHttpServletResponse send(String method, String path, String key, String body, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
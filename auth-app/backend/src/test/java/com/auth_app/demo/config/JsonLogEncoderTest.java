@@ -0,0 +1,46 @@
+package com.auth_app.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLogEncoderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final JsonLogEncoder encoder = new JsonLogEncoder();
+
+    @Test
+    @DisplayName("Encodes one JSON line with ECS fields, MDC entries and the throwable")
+    void encodesEvent() {
+        encoder.setContext(context);
+        encoder.setServiceName("auth-app");
+        encoder.start();
+        LoggingEvent event = new LoggingEvent("fqcn", context.getLogger("com.auth_app.demo.Test"), Level.WARN,
+                "Quote \" backslash \\ newline \n control \u0001 for {}", new IllegalStateException("boom"),
+                new Object[]{"user"});
+        event.setMDCPropertyMap(Map.of("requestId", "req-1", "traceId", "4bf92f3577b34da6a3ce929d0e0e4736"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+        JsonNode json = JsonMapper.builder().build().readTree(line);
+
+        assertThat(line).endsWith("}\n").doesNotContain("\u0001");
+        assertThat(json.get("@timestamp").asString()).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z");
+        assertThat(json.get("log.level").asString()).isEqualTo("WARN");
+        assertThat(json.get("log.logger").asString()).isEqualTo("com.auth_app.demo.Test");
+        assertThat(json.get("service.name").asString()).isEqualTo("auth-app");
+        assertThat(json.get("message").asString()).isEqualTo("Quote \" backslash \\ newline \n control \u0001 for user");
+        assertThat(json.get("requestId").asString()).isEqualTo("req-1");
+        assertThat(json.get("traceId").asString()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(json.get("error.type").asString()).isEqualTo("java.lang.IllegalStateException");
+        assertThat(json.get("error.stack_trace").asString()).contains("boom");
+    }
+}
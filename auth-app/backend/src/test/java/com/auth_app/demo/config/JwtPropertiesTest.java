@@ -0,0 +1,43 @@
+package com.auth_app.demo.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.validation.autoconfigure.ValidationAutoConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup validation of security.jwt.*: the application must refuse to start without a usable secret.
+ */
+class JwtPropertiesTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    ConfigurationPropertiesAutoConfiguration.class, ValidationAutoConfiguration.class))
+            .withUserConfiguration(JwtProperties.class);
+
+    @Test
+    @DisplayName("A missing secret fails startup with a message naming JWT_SECRET")
+    void missingSecretFailsStartup() {
+        runner.run(context -> assertThat(context).getFailure()
+                .rootCause().hasMessageContaining("JWT_SECRET"));
+    }
+
+    @Test
+    @DisplayName("A secret shorter than 32 bytes fails startup")
+    void shortSecretFailsStartup() {
+        runner.withPropertyValues("security.jwt.secret=only-31-bytes-long-0123456789ab")
+                .run(context -> assertThat(context).getFailure()
+                        .rootCause().hasMessageContaining("at least 32 bytes"));
+    }
+
+    @Test
+    @DisplayName("A 32-byte secret is accepted")
+    void sufficientSecretStarts() {
+        runner.withPropertyValues("security.jwt.secret=exactly-32-bytes-long-0123456789")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+}
@@ -0,0 +1,97 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.dtos.SqlStatementStats;
+import com.auth_app.demo.services.impl.SqlStatementMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MeteredDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SqlStatementMetrics metrics;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        SqlMetricsProperties properties = new SqlMetricsProperties();
+        properties.setSlowQueryThreshold(Duration.ofHours(1));
+        metrics = new SqlStatementMetrics(properties);
+        metrics.bindTo(registry);
+        jdbc = meteredDatabase(metrics);
+    }
+
+    @Test
+    @DisplayName("Statements are counted per shape, with rows read and rows affected")
+    void countsStatementsAndRows() {
+        long before = metrics.executions();
+
+        jdbc.batchUpdate("insert into items (id, name) values (?, ?)",
+                List.of(new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"}));
+        jdbc.queryForList("select name from items where id in (?, ?)", String.class, 1, 2);
+        jdbc.queryForList("select name from items where id in (?, ?, ?)", String.class, 1, 2, 3);
+        jdbc.update("update items set name = 'z' where id = 1");
+
+        assertThat(metrics.executions() - before).isEqualTo(4);
+        assertThat(stats("select name from items where id in (?)"))
+                .returns(2L, SqlStatementStats::getExecutions)
+                .returns(5L, SqlStatementStats::getRows);
+        assertThat(stats("insert into items (id, name) values (?)").getRows()).isEqualTo(3);
+        assertThat(stats("update items set name = ? where id = ?").getRows()).isEqualTo(1);
+        assertThat(registry.get("db.statements").tag("statement", stats("select name from items where id in (?)").getId())
+                .timer().count()).isEqualTo(2);
+        assertThat(metrics.connectionAcquisitions()).isEqualTo(registry.get("db.connection.acquire").timer().count());
+    }
+
+    @Test
+    @DisplayName("Statements that fail are still timed and logged as slow")
+    void timesFailedStatements() {
+        SqlMetricsProperties properties = new SqlMetricsProperties();
+        properties.setSlowQueryThreshold(Duration.ZERO);
+        metrics = new SqlStatementMetrics(properties);
+        jdbc = meteredDatabase(metrics);
+        jdbc.update("insert into items (id, name) values (?, ?)", 1, "a");
+
+        // Fails on execution, not on prepare: the primary key already exists
+        assertThatThrownBy(() -> jdbc.update("insert into items (id, name) values (?, ?)", 1, "b"))
+                .isInstanceOf(DataAccessException.class);
+
+        assertThat(stats("insert into items (id, name) values (?)"))
+                .returns(2L, SqlStatementStats::getExecutions)
+                .returns(2L, SqlStatementStats::getSlow)
+                .returns(1L, SqlStatementStats::getRows);
+    }
+
+    @Test
+    @DisplayName("Shapes replace literals and keep identifiers with digits")
+    void normalizesShapes() {
+        jdbc.queryForList("select u1_0.name from items u1_0 where u1_0.id = 42 and u1_0.name <> 'it''s'");
+
+        assertThat(metrics.snapshot()).extracting(SqlStatementStats::getSql)
+                .contains("select u1_0.name from items u1_0 where u1_0.id = ? and u1_0.name <> ?");
+        assertThat(stats("select u1_0.name from items u1_0 where u1_0.id = ? and u1_0.name <> ?").getId())
+                .startsWith("select items ");
+    }
+
+    private static JdbcTemplate meteredDatabase(SqlStatementMetrics metrics) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:metered-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(new MeteredDataSource(h2, () -> metrics));
+        jdbc.execute("create table items (id int primary key, name varchar(20))");
+        return jdbc;
+    }
+
+    private SqlStatementStats stats(String sql) {
+        return metrics.snapshot().stream().filter(s -> s.getSql().equals(sql)).findFirst().orElseThrow();
+    }
+}
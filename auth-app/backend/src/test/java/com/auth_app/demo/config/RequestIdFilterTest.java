@@ -96,6 +96,25 @@ class RequestIdFilterTest {
         assertThat(MDC.get(RequestIdFilter.MDC_REQUEST_ID_KEY)).isNull();
     }
 
+    @Test
+    @DisplayName("Should put the trace id of a valid traceparent header into MDC")
+    void shouldPutTraceIdIntoMdc() throws ServletException, IOException {
+        // Given
+        request.addHeader(RequestIdFilter.TRACEPARENT_HEADER, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        String[] traceIdInChain = new String[1];
+
+        // When
+        requestIdFilter.doFilterInternal(request, response,
+                (req, res) -> traceIdInChain[0] = MDC.get(RequestIdFilter.MDC_TRACE_ID_KEY));
+
+        // Then
+        assertThat(traceIdInChain[0]).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(MDC.get(RequestIdFilter.MDC_TRACE_ID_KEY)).isNull();
+        assertThat(RequestIdFilter.traceIdOf("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isNull();
+        assertThat(RequestIdFilter.traceIdOf("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01")).isNull();
+        assertThat(RequestIdFilter.traceIdOf("garbage")).isNull();
+    }
+
     @Test
     @DisplayName("Should set requestId in response header")
     void shouldSetRequestIdInResponseHeader() throws ServletException, IOException {
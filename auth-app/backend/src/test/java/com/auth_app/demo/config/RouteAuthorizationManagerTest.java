@@ -0,0 +1,114 @@
+package com.auth_app.demo.config;
+
+import com.auth_app.demo.common.RoleSet;
+import com.auth_app.demo.enums.RouteAccess;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteAuthorizationManagerTest {
+
+    private static final Authentication ANONYMOUS = new AnonymousAuthenticationToken(
+            "key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+    private static final Authentication USER = UsernamePasswordAuthenticationToken.authenticated(
+            "user@example.com", null, RoleSet.of(List.of("USER")).getAuthorities());
+    private static final Authentication ADMIN = UsernamePasswordAuthenticationToken.authenticated(
+            "admin@example.com", null, RoleSet.of(List.of("USER", "ADMIN")).getAuthorities());
+
+    private final RouteAuthorizationManager manager = new RouteAuthorizationManager(List.of(
+            rule("/api/auth/login", RouteAccess.PERMIT_ALL),
+            rule("/api/auth/oauth2/*", RouteAccess.PERMIT_ALL),
+            rule("/api/users/{id}/tokens/revoke", RouteAccess.DENY_ALL),
+            rule("/api/users/roles/**", RouteAccess.AUTHENTICATED, List.of(), List.of("ADMIN")),
+            rule("/api/users/*", RouteAccess.AUTHENTICATED, List.of("DELETE"), List.of("ADMIN")),
+            rule("/api/users/search", RouteAccess.PERMIT_ALL),
+            rule("/**", RouteAccess.AUTHENTICATED)));
+
+    @Test
+    @DisplayName("The first declared matching rule wins, as with requestMatchers")
+    void firstMatchWins() {
+        assertThat(manager.match("/api/users/search", "DELETE")).isEqualTo(4);
+        assertThat(manager.match("/api/users/search", "GET")).isEqualTo(5);
+        assertThat(manager.match("/api/users/42/tokens/revoke", "POST")).isEqualTo(2);
+        assertThat(manager.match("/api/users/roles/ADMIN/grant", "POST")).isEqualTo(3);
+        assertThat(manager.match("/api/users/roles", "POST")).isEqualTo(3);
+        assertThat(manager.match("/", "GET")).isEqualTo(6);
+        assertThat(manager.match("/api/auth/login/", "POST")).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Decisions follow access, method and required authorities")
+    void decisions() {
+        assertThat(granted("POST", "/api/auth/oauth2/google", ANONYMOUS)).isTrue();
+        assertThat(granted("GET", "/api/users/42", ANONYMOUS)).isFalse();
+        assertThat(granted("GET", "/api/users/42", USER)).isTrue();
+        assertThat(granted("DELETE", "/api/users/42", USER)).isFalse();
+        assertThat(granted("DELETE", "/api/users/42", ADMIN)).isTrue();
+        assertThat(granted("POST", "/api/users/42/tokens/revoke", ADMIN)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Authorities that did not come from RoleSet are matched by name")
+    void plainAuthorities() {
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+                "admin@example.com", null, AuthorityUtils.createAuthorityList("ADMIN"));
+
+        assertThat(granted("POST", "/api/users/roles/ADMIN/grant", admin)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Percent-encoded paths are decoded before matching")
+    void encodedPath() {
+        assertThat(granted("DELETE", "/api/%75sers/42", USER)).isFalse();
+        assertThat(granted("DELETE", "/api/%75sers/42", ADMIN)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Unmatched requests are denied and unsupported patterns fail at startup")
+    void failClosed() {
+        RouteAuthorizationManager narrow = new RouteAuthorizationManager(List.of(rule("/api/auth/login", RouteAccess.PERMIT_ALL)));
+
+        assertThat(granted(narrow, "GET", "/api/users", ADMIN)).isFalse();
+        assertThatThrownBy(() -> new RouteAuthorizationManager(List.of(rule("/api/**/users", RouteAccess.PERMIT_ALL))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RouteAuthorizationManager(List.of(rule("/api/*.json", RouteAccess.PERMIT_ALL))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RouteAuthorizationManager(List.of(
+                rule("/api/**", RouteAccess.PERMIT_ALL, List.of(), List.of("ADMIN")))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private boolean granted(String method, String path, Authentication authentication) {
+        return granted(manager, method, path, authentication);
+    }
+
+    private static boolean granted(RouteAuthorizationManager manager, String method, String path,
+                                   Authentication authentication) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        return manager.authorize(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+    }
+
+    static AuthorizationProperties.Rule rule(String pattern, RouteAccess access) {
+        return rule(pattern, access, List.of(), List.of());
+    }
+
+    static AuthorizationProperties.Rule rule(String pattern, RouteAccess access, List<String> methods,
+                                             List<String> authorities) {
+        AuthorizationProperties.Rule rule = new AuthorizationProperties.Rule();
+        rule.setPattern(pattern);
+        rule.setAccess(access);
+        rule.setMethods(methods);
+        rule.setAuthorities(authorities);
+        return rule;
+    }
+}
@@ -0,0 +1,207 @@
+package com.auth_app.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unknown-username handling. Assertions are made on the durations the provider reports and
+ * the delays the strategy chooses, never on wall-clock time, so the results do not depend on
+ * the load of the machine running them. Uses a low BCrypt strength to keep the suite fast.
+ */
+class TimingSafeAuthenticationProviderTest {
+
+    private static final String KNOWN = "known@example.com";
+    private static final String PASSWORD = "correct-password";
+
+    private final CountingPasswordEncoder passwordEncoder = new CountingPasswordEncoder(new BCryptPasswordEncoder(4));
+    private InMemoryUserDetailsManager userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new InMemoryUserDetailsManager(User.withUsername(KNOWN)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles("USER")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Known and unknown usernames fail with the same exception")
+    void sameFailureForKnownAndUnknown() {
+        TimingSafeAuthenticationProvider provider = provider(new RecordingDelayStrategy(passwordEncoder, 64));
+
+        assertThatThrownBy(() -> provider.authenticate(token(KNOWN, "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(token("nobody@example.com", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(provider.authenticate(token(KNOWN, PASSWORD)).isAuthenticated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Known-user durations are reported and unknown users are handed to the strategy")
+    void providerReportsToStrategy() {
+        RecordingStrategy strategy = new RecordingStrategy();
+        TimingSafeAuthenticationProvider provider = provider(strategy);
+
+        attempt(provider, KNOWN);
+        attempt(provider, "nobody@example.com");
+
+        assertThat(strategy.known).hasSize(1);
+        assertThat(strategy.known.get(0)).isPositive();
+        assertThat(strategy.unknownPasswords).containsExactly("wrong-password");
+    }
+
+    @Test
+    @DisplayName("Calibrated delay waits for a recorded known-user duration, less the lookup time")
+    void calibratedDelayIsDrawnFromKnownDurations() {
+        RecordingDelayStrategy strategy = new RecordingDelayStrategy(passwordEncoder, 4);
+        // Overwrites the calibration sample: the ring now holds exactly these four
+        for (long duration : new long[]{100, 200, 300, 400}) {
+            strategy.recordKnownUser(duration);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            strategy.onUnknownUser("wrong-password", 30);
+        }
+
+        assertThat(new HashSet<>(strategy.pauses)).containsExactlyInAnyOrder(70L, 170L, 270L, 370L);
+    }
+
+    @Test
+    @DisplayName("Calibrated delay does not wait when the lookup already took longer than the sample")
+    void calibratedDelaySkipsWaitAfterSlowLookup() {
+        RecordingDelayStrategy strategy = new RecordingDelayStrategy(passwordEncoder, 4);
+        for (long duration : new long[]{100, 200, 300, 400}) {
+            strategy.recordKnownUser(duration);
+        }
+
+        strategy.onUnknownUser("wrong-password", 400);
+
+        assertThat(strategy.pauses).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Calibrated delay computes no hash for unknown users; the dummy hash computes one each")
+    void calibratedDelayDoesNotHash() {
+        TimingSafeAuthenticationProvider delayed = provider(new RecordingDelayStrategy(passwordEncoder, 64));
+        TimingSafeAuthenticationProvider hashing = provider(new DummyHashTimingStrategy(passwordEncoder));
+
+        int before = passwordEncoder.matches.get();
+        for (int i = 0; i < 10; i++) {
+            attempt(delayed, "unknown" + i + "@example.com");
+        }
+        assertThat(passwordEncoder.matches.get() - before).isZero();
+
+        before = passwordEncoder.matches.get();
+        for (int i = 0; i < 10; i++) {
+            attempt(hashing, "unknown" + i + "@example.com");
+        }
+        assertThat(passwordEncoder.matches.get() - before).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("A successful login re-encodes a weaker hash through the UserDetailsPasswordService")
+    void upgradesWeakerHashOnSuccess() {
+        String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        userDetailsService.updatePassword(userDetailsService.loadUserByUsername(KNOWN), weak);
+        TimingSafeAuthenticationProvider provider = new TimingSafeAuthenticationProvider(
+                userDetailsService, new BCryptPasswordEncoder(5), new RecordingStrategy());
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        attempt(provider, KNOWN);
+        assertThat(userDetailsService.loadUserByUsername(KNOWN).getPassword()).isEqualTo(weak);
+
+        provider.authenticate(token(KNOWN, PASSWORD));
+        assertThat(userDetailsService.loadUserByUsername(KNOWN).getPassword()).startsWith("$2a$05$");
+    }
+
+    private TimingSafeAuthenticationProvider provider(UnknownUserTimingStrategy strategy) {
+        return new TimingSafeAuthenticationProvider(userDetailsService, passwordEncoder, strategy);
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+
+    private static void attempt(TimingSafeAuthenticationProvider provider, String username) {
+        try {
+            provider.authenticate(token(username, "wrong-password"));
+        } catch (BadCredentialsException expected) {
+            // both paths end here
+        }
+    }
+
+    /**
+     * Records the delays it would wait instead of parking the thread.
+     */
+    private static final class RecordingDelayStrategy extends CalibratedDelayTimingStrategy {
+
+        private final List<Long> pauses = new ArrayList<>();
+
+        RecordingDelayStrategy(PasswordEncoder passwordEncoder, int sampleSize) {
+            super(passwordEncoder, sampleSize, 1);
+        }
+
+        @Override
+        void pause(long nanos) {
+            pauses.add(nanos);
+        }
+    }
+
+    private static final class RecordingStrategy implements UnknownUserTimingStrategy {
+
+        private final List<Long> known = new ArrayList<>();
+        private final List<String> unknownPasswords = new ArrayList<>();
+
+        @Override
+        public void recordKnownUser(long elapsedNanos) {
+            known.add(elapsedNanos);
+        }
+
+        @Override
+        public void onUnknownUser(String presentedPassword, long elapsedNanos) {
+            unknownPasswords.add(presentedPassword);
+        }
+    }
+
+    private static final class CountingPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+        private final AtomicInteger matches = new AtomicInteger();
+
+        CountingPasswordEncoder(PasswordEncoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            matches.incrementAndGet();
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
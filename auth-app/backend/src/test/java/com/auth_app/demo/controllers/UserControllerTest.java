@@ -0,0 +1,364 @@
+package com.auth_app.demo.controllers;
+
+import com.auth_app.demo.PostgresIntegrationTest;
+import com.auth_app.demo.dtos.SqlStatementStats;
+import com.auth_app.demo.services.impl.SqlStatementMetrics;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * HTTP-level tests of UserController against the real schema.
+ */
+class UserControllerTest extends PostgresIntegrationTest {
+
+    private static final String RENAME = "{\"name\":\"Renamed User\"}";
+
+    @Autowired
+    private SqlStatementMetrics sqlStatementMetrics;
+
+    // ========== Conditional GET ==========
+
+    @Test
+    @DisplayName("GET returns a strong \"<id>:<version>\" ETag and no Last-Modified")
+    void getReturnsETag() throws Exception {
+        UUID id = insertUser("Get User", uniqueEmail("get"), "USER");
+        jdbc.update("UPDATE users SET version = 7 WHERE id = ?", id);
+
+        mockMvc.perform(get("/api/users/{id}", id).with(asAdmin()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ":7\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    @DisplayName("GET with a current If-None-Match answers 304 without a body")
+    void getWithCurrentIfNoneMatch() throws Exception {
+        UUID id = insertUser("Get User", uniqueEmail("get"), "USER");
+
+        mockMvc.perform(get("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + ":0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ":0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET by email honours If-None-Match too")
+    void getByEmailWithCurrentIfNoneMatch() throws Exception {
+        String email = uniqueEmail("get");
+        UUID id = insertUser("Get User", email, "USER");
+
+        mockMvc.perform(get("/api/users/email/{email}", email).with(asAdmin())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + ":0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET with a stale If-None-Match returns the user and the new ETag")
+    void getWithStaleIfNoneMatch() throws Exception {
+        UUID id = insertUser("Get User", uniqueEmail("get"), "USER");
+        jdbc.update("UPDATE users SET version = 1 WHERE id = ?", id);
+
+        mockMvc.perform(get("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + id + ":0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ":1\""))
+                .andExpect(jsonPath("$.data.id").value(id.toString()));
+    }
+
+    @Test
+    @DisplayName("If-Modified-Since alone never produces a 304")
+    void ifModifiedSinceIsIgnored() throws Exception {
+        UUID id = insertUser("Get User", uniqueEmail("get"), "USER");
+
+        mockMvc.perform(get("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    // ========== PATCH and If-Match ==========
+
+    @Test
+    @DisplayName("PATCH with a current If-Match applies and returns the next ETag")
+    void patchWithCurrentIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "\"" + id + ":0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ":1\""))
+                .andExpect(jsonPath("$.data.name").value("Renamed User"));
+    }
+
+    @Test
+    @DisplayName("PATCH without If-Match is unconditional")
+    void patchWithoutIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ":1\""));
+    }
+
+    @Test
+    @DisplayName("PATCH with a stale If-Match is rejected with 409 and changes nothing")
+    void patchWithStaleIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+        jdbc.update("UPDATE users SET version = 3 WHERE id = ?", id);
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "\"" + id + ":2\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("USER_004"));
+
+        assertThat(jdbc.queryForObject("SELECT name FROM users WHERE id = ?", String.class, id)).isEqualTo("Patch User");
+        assertThat(version(id)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("PATCH with an ETag of another user is rejected with 409")
+    void patchWithOtherUsersIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "\"" + UUID.randomUUID() + ":0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("USER_004"));
+    }
+
+    @Test
+    @DisplayName("PATCH with If-Match: * is unconditional")
+    void patchWithWildcardIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("PATCH with a weak If-Match of the current version is rejected with 409")
+    void patchWithWeakIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "W/\"" + id + ":0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("USER_004"));
+
+        assertThat(version(id)).isZero();
+    }
+
+    @Test
+    @DisplayName("PATCH with an If-Match list applies when any entry is current")
+    void patchWithIfMatchList() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+        jdbc.update("UPDATE users SET version = 2 WHERE id = ?", id);
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "\"" + id + ":1\", \"" + id + ":2\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ":3\""));
+    }
+
+    @Test
+    @DisplayName("PATCH with a malformed If-Match is a bad request")
+    void patchWithMalformedIfMatch() throws Exception {
+        UUID id = insertUser("Patch User", uniqueEmail("patch"), "USER");
+
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .header(HttpHeaders.IF_MATCH, "\"not-a-version\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(RENAME))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ========== Batch get ==========
+
+    @Test
+    @DisplayName("Batch get resolves ids and emails in one statement and lists the misses")
+    void batchGetResolvesKeysInOneStatement() throws Exception {
+        String email = uniqueEmail("batch");
+        UUID byId = insertUser("By Id", uniqueEmail("batch"), "USER");
+        UUID byEmail = insertUser("By Email", email, "USER");
+        UUID missing = UUID.randomUUID();
+        String missingEmail = uniqueEmail("missing");
+        long before = userStatements();
+
+        mockMvc.perform(post("/api/users/batch-get").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + byId + "\",\"" + missing + "\",\"" + byId + "\"],"
+                                + "\"emails\":[\"" + email + "\",\"" + missingEmail + "\",\"" + email + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.byId.length()").value(2))
+                .andExpect(jsonPath("$.data.byId['" + byId + "'].name").value("By Id"))
+                .andExpect(jsonPath("$.data.byId['" + missing + "']").value(Matchers.nullValue()))
+                .andExpect(jsonPath("$.data.byEmail.length()").value(2))
+                .andExpect(jsonPath("$.data.byEmail['" + email + "'].id").value(byEmail.toString()))
+                .andExpect(jsonPath("$.data.notFoundIds").value(Matchers.contains(missing.toString())))
+                .andExpect(jsonPath("$.data.notFoundEmails").value(Matchers.contains(missingEmail)));
+
+        assertThat(userStatements() - before).isOne();
+    }
+
+    @Test
+    @DisplayName("Batch get leaves soft-deleted users out")
+    void batchGetExcludesDeletedUsers() throws Exception {
+        String email = uniqueEmail("batch");
+        UUID id = insertUser("Deleted", email, "USER");
+        jdbc.update("UPDATE users SET deleted_at = now() WHERE id = ?", id);
+
+        mockMvc.perform(post("/api/users/batch-get").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + id + "\"],\"emails\":[\"" + email + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.notFoundIds").value(Matchers.contains(id.toString())))
+                .andExpect(jsonPath("$.data.notFoundEmails").value(Matchers.contains(email)));
+    }
+
+    @Test
+    @DisplayName("Batch get accepts 500 distinct keys and rejects more, counting ids and emails together")
+    void batchGetKeyLimit() throws Exception {
+        mockMvc.perform(post("/api/users/batch-get").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON).content(batch(300, 200)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.notFoundIds.length()").value(300));
+        mockMvc.perform(post("/api/users/batch-get").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON).content(batch(300, 201)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VAL_001"));
+        mockMvc.perform(post("/api/users/batch-get").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON).content(batch(501, 0)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/users/batch-get").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Batch get is ADMIN only")
+    void batchGetRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/users/batch-get").with(as("user@example.com", "USER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(batch(1, 0)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Bulk grant and revoke are ADMIN only")
+    void bulkRoleAssignmentRequiresAdmin() throws Exception {
+        UUID caller = insertUser("Bulk Caller", uniqueEmail("bulk"), "USER");
+        String body = "{\"userIds\":[\"" + caller + "\"]}";
+
+        mockMvc.perform(post("/api/users/roles/{role}/grant", "ADMIN").with(as("user@example.com", "USER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users/roles/{role}/revoke", "USER").with(as("user@example.com", "USER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden());
+
+        assertThat(jdbc.queryForObject("""
+                SELECT string_agg(r.name, ',') FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                WHERE ur.user_id = ?
+                """, String.class, caller)).isEqualTo("USER");
+        assertThat(version(caller)).isZero();
+    }
+
+    // ========== Token revocation ==========
+
+    @Test
+    @DisplayName("Revoking all tokens of a user is ADMIN only")
+    void revokeAllTokensRequiresAdmin() throws Exception {
+        UUID target = insertUser("Revoke Target", uniqueEmail("revoke"), "ADMIN");
+
+        mockMvc.perform(post("/api/users/{id}/tokens/revoke", target).with(as("user@example.com", "USER")))
+                .andExpect(status().isForbidden());
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM user_token_watermarks WHERE user_id = ?", Integer.class, target))
+                .isZero();
+
+        mockMvc.perform(post("/api/users/{id}/tokens/revoke", target).with(asAdmin()))
+                .andExpect(status().isOk());
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM user_token_watermarks WHERE user_id = ?", Integer.class, target))
+                .isOne();
+    }
+
+    /** Statements on the users table so far; background jobs in the test context touch other tables. */
+    private long userStatements() {
+        return sqlStatementMetrics.snapshot().stream()
+                .filter(stats -> stats.getSql().toLowerCase(Locale.ROOT).contains(" users "))
+                .mapToLong(SqlStatementStats::getExecutions)
+                .sum();
+    }
+
+    private static String batch(int ids, int emails) {
+        String idList = IntStream.range(0, ids).mapToObj(i -> "\"" + UUID.randomUUID() + "\"")
+                .collect(Collectors.joining(","));
+        String emailList = IntStream.range(0, emails).mapToObj(i -> "\"" + uniqueEmail("limit") + "\"")
+                .collect(Collectors.joining(","));
+        return "{\"ids\":[" + idList + "],\"emails\":[" + emailList + "]}";
+    }
+
+    // ========== Bulk role changes ==========
+
+    @Test
+    @DisplayName("Bulk grant bumps the version only of users that did not hold the role")
+    void bulkGrantBumpsOnlyChangedUsers() throws Exception {
+        String role = "BULK_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        UUID holder = insertUser("Holder", uniqueEmail("holder"), "USER", role);
+        UUID newcomer = insertUser("Newcomer", uniqueEmail("newcomer"), "USER");
+
+        mockMvc.perform(post("/api/users/roles/{role}/grant", role).with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userIds\":[\"" + holder + "\",\"" + newcomer + "\",\"" + UUID.randomUUID() + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.requested").value(3))
+                .andExpect(jsonPath("$.data.affected").value(1));
+
+        assertThat(version(holder)).isZero();
+        assertThat(version(newcomer)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Bulk revoke bumps the version only of users that held the role")
+    void bulkRevokeBumpsOnlyChangedUsers() throws Exception {
+        String role = "BULK_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        UUID holder = insertUser("Holder", uniqueEmail("holder"), "USER", role);
+        UUID other = insertUser("Other", uniqueEmail("other"), "USER");
+
+        mockMvc.perform(post("/api/users/roles/{role}/revoke", role).with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userIds\":[\"" + holder + "\",\"" + other + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.affected").value(1));
+
+        assertThat(version(holder)).isEqualTo(1L);
+        assertThat(version(other)).isZero();
+    }
+
+    private Long version(UUID id) {
+        return jdbc.queryForObject("SELECT version FROM users WHERE id = ?", Long.class, id);
+    }
+}
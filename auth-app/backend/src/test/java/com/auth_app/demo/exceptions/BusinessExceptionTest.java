@@ -0,0 +1,43 @@
+package com.auth_app.demo.exceptions;
+
+import com.auth_app.demo.config.ErrorProperties;
+import com.auth_app.demo.exceptions.model.ApiError;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BusinessExceptionTest {
+
+    @Test
+    @DisplayName("Business exceptions are stackless")
+    void stackless() {
+        BusinessException ex = new BusinessException(ErrorCode.USER_EMAIL_EXISTS, HttpStatus.CONFLICT, "taken");
+        ex.addSuppressed(new IllegalStateException());
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(ex.getSuppressed()).isEmpty();
+        assertThat(new EntityNotFoundException("User", "x").getStackTrace()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("With include-stacktrace the response names the exception and traces its cause")
+    void includedTraceKeepsCause() {
+        ErrorProperties properties = new ErrorProperties();
+        properties.setIncludeStacktrace(true);
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(properties);
+        BusinessException ex = new BusinessException(ErrorCode.BAD_REQUEST, HttpStatus.BAD_REQUEST,
+                "wrapped", new IllegalStateException("root cause"));
+
+        ApiError body = (ApiError) handler.handleBusinessException(ex, new MockHttpServletRequest("GET", "/api/users"))
+                .getBody();
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(body.getTrace())
+                .startsWith(BusinessException.class.getName() + ": wrapped")
+                .contains("Caused by: java.lang.IllegalStateException: root cause")
+                .contains("\tat " + BusinessExceptionTest.class.getName());
+    }
+}
@@ -10,8 +10,8 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -23,7 +23,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for GlobalExceptionHandler.
  * Tests various exception scenarios and validates error responses.
  */
-@SpringBootTest
+@SpringBootTest(properties = "security.jwt.secret=integration-test-secret-0123456789abcdef")
 @AutoConfigureMockMvc
 class GlobalExceptionHandlerIntegrationTest {
 
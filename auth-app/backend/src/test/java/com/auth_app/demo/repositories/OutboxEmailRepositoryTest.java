@@ -0,0 +1,67 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.PostgresIntegrationTest;
+import com.auth_app.demo.entities.OutboxEmail;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The outbox claim statement against PostgreSQL. Runs with the dispatcher idle.
+ */
+class OutboxEmailRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OutboxEmailRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Claiming leases due emails, counts the attempt, and hides them until the lease ends")
+    void claimLeasesDueEmails() {
+        UUID userId = insertUser("Outbox User", uniqueEmail("outbox"), "USER");
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        // Far in the past, so earlier tests' rows in the shared table cannot be due before these
+        Instant due = now.minus(Duration.ofDays(3650));
+        UUID first = queue(userId, due);
+        UUID second = queue(userId, due.plusSeconds(1));
+        UUID notDue = queue(userId, now.plus(Duration.ofHours(1)));
+        Instant leaseUntil = now.plus(Duration.ofMinutes(5));
+
+        List<OutboxEmail> claimed = claim(now, leaseUntil, 2);
+
+        assertThat(claimed).extracting(OutboxEmail::getId).containsExactlyInAnyOrder(first, second);
+        assertThat(claimed).allSatisfy(email -> {
+            assertThat(email.getAttempts()).isOne();
+            assertThat(email.getAvailableAt()).isEqualTo(leaseUntil);
+        });
+        assertThat(claim(now, leaseUntil, 100)).extracting(OutboxEmail::getId).doesNotContain(first, second, notDue);
+        assertThat(claim(leaseUntil.plusSeconds(1), leaseUntil.plusSeconds(60), 100))
+                .extracting(OutboxEmail::getId).contains(first, second);
+    }
+
+    private List<OutboxEmail> claim(Instant now, Instant leaseUntil, int limit) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> outboxRepository.claimDue(now, leaseUntil, limit));
+    }
+
+    private UUID queue(UUID userId, Instant availableAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO email_outbox (id, user_id, recipient, verification_token, attempts, available_at, created_at)
+                VALUES (?, ?, 'outbox@example.com', 'token', 0, ?, now())
+                """, id, userId, java.sql.Timestamp.from(availableAt));
+        return id;
+    }
+}
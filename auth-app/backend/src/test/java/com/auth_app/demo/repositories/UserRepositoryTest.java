@@ -0,0 +1,232 @@
+package com.auth_app.demo.repositories;
+
+import com.auth_app.demo.PostgresIntegrationTest;
+import com.auth_app.demo.common.SearchCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Native and soft-delete-aware queries of UserRepository against PostgreSQL.
+ */
+class UserRepositoryTest extends PostgresIntegrationTest {
+
+    /** Tables keyed by user_id that must not outlive a purged user. */
+    private static final List<String> USER_TABLES = List.of("user_roles", "refresh_tokens",
+            "email_verification_tokens", "email_outbox", "user_token_watermarks", "revoked_tokens");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // ========== Soft delete ==========
+
+    @Test
+    @DisplayName("DELETE marks the user deleted, bumps the version and keeps the row")
+    void deleteIsSoft() throws Exception {
+        UUID id = insertUser("Soft User", uniqueEmail("soft"), "USER");
+
+        mockMvc.perform(delete("/api/users/{id}", id).with(asAdmin()))
+                .andExpect(status().isOk());
+
+        assertThat(jdbc.queryForObject("SELECT deleted_at IS NOT NULL FROM users WHERE id = ?", Boolean.class, id)).isTrue();
+        assertThat(jdbc.queryForObject("SELECT version FROM users WHERE id = ?", Long.class, id)).isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM user_roles WHERE user_id = ?", Integer.class, id)).isOne();
+        Integer again = new TransactionTemplate(transactionManager)
+                .execute(status -> userRepository.softDelete(id, Instant.now()));
+        assertThat(again).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleted users are invisible to entity queries and the API")
+    void deletedUsersAreHidden() throws Exception {
+        String email = uniqueEmail("hidden");
+        UUID id = insertUser("Hidden User", email, "USER");
+        jdbc.update("UPDATE users SET deleted_at = now() WHERE id = ?", id);
+
+        assertThat(userRepository.findById(id)).isEmpty();
+        assertThat(userRepository.findByEmail(email)).isEmpty();
+        assertThat(userRepository.existsByEmail(email)).isFalse();
+        assertThat(userRepository.findVersionById(id)).isEmpty();
+        mockMvc.perform(get("/api/users/{id}", id).with(asAdmin()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/users/{id}", id).with(asAdmin()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("The email of a deleted user can register again")
+    void deletedEmailCanRegisterAgain() throws Exception {
+        String email = uniqueEmail("again");
+        UUID deleted = insertUser("First Owner", email, "USER");
+        jdbc.update("UPDATE users SET deleted_at = now() WHERE id = ?", deleted);
+
+        mockMvc.perform(post("/api/users").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Second Owner\",\"email\":\"" + email + "\",\"password\":\"password-123\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.email").value(email));
+
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM users WHERE email = ?", Integer.class, email)).isEqualTo(2);
+        assertThat(userRepository.findByEmail(email)).get().extracting(user -> user.getId()).isNotEqualTo(deleted);
+    }
+
+    // ========== Search ==========
+
+    @Test
+    @DisplayName("Search ranks prefix matches first and pages through the rest by cursor")
+    void searchRanksAndPages() {
+        String needle = needle();
+        UUID prefix = insertUser(needle + " Prefix", uniqueEmail("search"), "USER");
+        UUID inside = insertUser("Has " + needle + " Inside", uniqueEmail("search"), "USER");
+        UUID byEmail = insertUser("Email Match", "x." + needle + "@example.com", "USER");
+        insertUser("Unrelated", uniqueEmail("search"), "USER");
+
+        List<UserRepository.SearchHit> first = search(needle, null, null, SearchCursor.FIRST, 1, 1000);
+        assertThat(first).extracting(UserRepository.SearchHit::getId).containsExactly(prefix);
+        assertThat(first.get(0).getRank()).isGreaterThanOrEqualTo(1.0);
+        assertThat(first.get(0).getRoles()).isEqualTo("USER");
+
+        UserRepository.SearchHit last = first.get(0);
+        List<UserRepository.SearchHit> rest = search(needle, null, null,
+                new SearchCursor(last.getRank(), last.getId()), 10, 1000);
+        assertThat(rest).extracting(UserRepository.SearchHit::getId).containsExactlyInAnyOrder(inside, byEmail);
+        assertThat(rest).allSatisfy(hit -> assertThat(hit.getRank()).isLessThan(1.0));
+    }
+
+    @Test
+    @DisplayName("Search filters by role and provider and skips deleted users")
+    void searchFilters() {
+        String needle = needle();
+        String role = "SEARCH_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        UUID plain = insertUser(needle + " Plain", uniqueEmail("search"), "USER");
+        UUID withRole = insertUser(needle + " Role", uniqueEmail("search"), "USER", role);
+        UUID google = insertUser(needle + " Google", uniqueEmail("search"), "USER", role);
+        jdbc.update("UPDATE users SET provider = 'GOOGLE', provider_id = ? WHERE id = ?", UUID.randomUUID().toString(), google);
+        UUID deleted = insertUser(needle + " Deleted", uniqueEmail("search"), "USER", role);
+        jdbc.update("UPDATE users SET deleted_at = now() WHERE id = ?", deleted);
+
+        assertThat(ids(search(needle, null, null, SearchCursor.FIRST, 10, 1000)))
+                .containsExactlyInAnyOrder(plain, withRole, google);
+        assertThat(ids(search(needle, null, role, SearchCursor.FIRST, 10, 1000)))
+                .containsExactlyInAnyOrder(withRole, google);
+        assertThat(ids(search(needle, "GOOGLE", null, SearchCursor.FIRST, 10, 1000)))
+                .containsExactly(google);
+        assertThat(ids(search(needle, "LOCAL", role, SearchCursor.FIRST, 10, 1000)))
+                .containsExactly(withRole);
+        assertThat(search(needle, "GITHUB", null, SearchCursor.FIRST, 10, 1000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Search ranks the closest candidates, however new, and reports the cut")
+    void searchCapsCandidatesByRelevance() {
+        String needle = needle();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(insertUser("User " + i + " " + needle, uniqueEmail("search"), "USER"));
+        }
+        // The best match has the highest id, as the newest UUIDv7 user would; PostgreSQL orders
+        // uuids bytewise, as their text form does
+        UUID newest = ids.stream().max(Comparator.comparing(UUID::toString)).orElseThrow();
+        jdbc.update("UPDATE users SET name = ? WHERE id = ?", needle + " Prefix", newest);
+
+        List<UserRepository.SearchHit> capped = search(needle, null, null, SearchCursor.FIRST, 10, 3);
+        assertThat(capped.get(0).getId()).isEqualTo(newest);
+        assertThat(capped).hasSizeLessThan(6);
+        assertThat(capped).allSatisfy(hit -> assertThat(hit.getTruncated()).isTrue());
+
+        List<UserRepository.SearchHit> all = search(needle, null, null, SearchCursor.FIRST, 10, 1000);
+        assertThat(all).hasSize(6);
+        assertThat(all.get(0).getId()).isEqualTo(newest);
+        assertThat(all).allSatisfy(hit -> assertThat(hit.getTruncated()).isFalse());
+    }
+
+    private List<UserRepository.SearchHit> search(String needle, String provider, String role,
+                                                  SearchCursor after, int limit, int maxCandidates) {
+        return userRepository.search(needle, "%" + needle + "%", needle + "%", provider, role,
+                after.getRank(), after.getId(), limit, maxCandidates);
+    }
+
+    private static List<UUID> ids(List<UserRepository.SearchHit> hits) {
+        return hits.stream().map(UserRepository.SearchHit::getId).toList();
+    }
+
+    /** Lower-case letters outside the hex range, so no generated email or id contains it. */
+    private static String needle() {
+        StringBuilder needle = new StringBuilder("zq");
+        ThreadLocalRandom random = java.util.concurrent.ThreadLocalRandom.current();
+        for (int i = 0; i < 6; i++) {
+            needle.append((char) ('g' + random.nextInt(20)));
+        }
+        return needle.toString();
+    }
+
+    // ========== Purge ==========
+
+    @Test
+    @DisplayName("Purge removes users deleted before the cutoff and every row keyed by them")
+    void purgeRemovesUserAndDependents() {
+        UUID purged = insertUser("Purged User", uniqueEmail("purged"), "USER");
+        UUID recent = insertUser("Recent User", uniqueEmail("recent"), "USER");
+        UUID live = insertUser("Live User", uniqueEmail("live"), "USER");
+        Instant now = Instant.now();
+        jdbc.update("UPDATE users SET deleted_at = ? WHERE id = ?", Timestamp.from(now.minus(Duration.ofDays(40))), purged);
+        jdbc.update("UPDATE users SET deleted_at = ? WHERE id = ?", Timestamp.from(now.minus(Duration.ofDays(1))), recent);
+        for (UUID id : List.of(purged, recent, live)) {
+            insertDependents(id);
+        }
+
+        Integer count = new TransactionTemplate(transactionManager)
+                .execute(status -> userRepository.purgeDeleted(now.minus(Duration.ofDays(30)), 1000));
+
+        assertThat(count).isOne();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM users WHERE id = ?", Integer.class, purged)).isZero();
+        for (String table : USER_TABLES) {
+            assertThat(rows(table, purged)).as(table).isZero();
+            assertThat(rows(table, recent)).as(table).isOne();
+            assertThat(rows(table, live)).as(table).isOne();
+        }
+    }
+
+    private void insertDependents(UUID userId) {
+        Timestamp later = Timestamp.from(Instant.now().plus(Duration.ofDays(1)));
+        jdbc.update("""
+                INSERT INTO refresh_tokens (id, token_hash, user_id, family_id, expires_at, created_at)
+                VALUES (?, ?, ?, ?, ?, now())
+                """, UUID.randomUUID(), UUID.randomUUID().toString(), userId, UUID.randomUUID(), later);
+        jdbc.update("INSERT INTO email_verification_tokens (token_hash, user_id, expires_at) VALUES (?, ?, ?)",
+                UUID.randomUUID().toString(), userId, later);
+        jdbc.update("""
+                INSERT INTO email_outbox (id, user_id, recipient, verification_token, attempts, available_at, created_at)
+                VALUES (?, ?, 'purge@example.com', 'token', 0, ?, now())
+                """, UUID.randomUUID(), userId, later);
+        jdbc.update("INSERT INTO user_token_watermarks (user_id, not_before, updated_at) VALUES (?, now(), now())", userId);
+        jdbc.update("INSERT INTO revoked_tokens (jti, user_id, expires_at, revoked_at) VALUES (?, ?, ?, now())",
+                UUID.randomUUID(), userId, later);
+    }
+
+    private int rows(String table, UUID userId) {
+        return jdbc.queryForObject("SELECT count(*) FROM " + table + " WHERE user_id = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.dtos.OidcIdentity;
+import com.auth_app.demo.enums.AuthProvider;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.repositories.UserRepository;
+import com.auth_app.demo.services.JwtService;
+import com.auth_app.demo.services.OidcTokenVerifier;
+import com.auth_app.demo.services.RefreshTokenService;
+import com.auth_app.demo.services.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the OIDC login path of AuthServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+    private static final String ID_TOKEN = "id-token";
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private OidcTokenVerifier oidcTokenVerifier;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EmailExistenceFilter emailExistenceFilter;
+    @Mock
+    private UserReadCoalescer userReadCoalescer;
+
+    private AuthServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuthServiceImpl(authenticationManager, jwtService, refreshTokenService, tokenRevocationService,
+                oidcTokenVerifier, userRepository, emailExistenceFilter, userReadCoalescer);
+        when(oidcTokenVerifier.supports(AuthProvider.GOOGLE)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("An unverified provider email is rejected before anything is stored")
+    void rejectsUnverifiedEmail() {
+        identity(false);
+
+        assertThatThrownBy(() -> service.loginWithIdToken(AuthProvider.GOOGLE, ID_TOKEN))
+                .isInstanceOfSatisfying(BusinessException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo(ErrorCode.AUTH_EMAIL_NOT_VERIFIED);
+                    assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.FORBIDDEN);
+                });
+        verify(userRepository, never()).upsertExternalUser(any(), any(), any(), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    @DisplayName("An email owned by another sign-in method maps to 409")
+    void emailOfAnotherAccountConflicts() {
+        identity(true);
+        when(userRepository.upsertExternalUser(any(), eq("GOOGLE"), eq("sub-1"), anyString(), eq(true), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("insert failed", new SQLException(
+                        "ERROR: duplicate key value violates unique constraint \"ux_users_email_active\"")));
+
+        assertThatThrownBy(() -> service.loginWithIdToken(AuthProvider.GOOGLE, ID_TOKEN))
+                .isInstanceOfSatisfying(BusinessException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo(ErrorCode.USER_EMAIL_EXISTS);
+                    assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.CONFLICT);
+                });
+    }
+
+    @Test
+    @DisplayName("Other integrity violations are not reported as a taken email")
+    void otherViolationsPropagate() {
+        identity(true);
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("insert failed", new SQLException(
+                "ERROR: null value in column \"email\" of relation \"users\" violates not-null constraint"));
+        when(userRepository.upsertExternalUser(any(), any(), any(), any(), anyBoolean(), any(), any()))
+                .thenThrow(failure);
+
+        assertThatThrownBy(() -> service.loginWithIdToken(AuthProvider.GOOGLE, ID_TOKEN)).isSameAs(failure);
+    }
+
+    private void identity(boolean emailVerified) {
+        when(oidcTokenVerifier.verify(AuthProvider.GOOGLE, ID_TOKEN)).thenReturn(Optional.of(
+                new OidcIdentity(AuthProvider.GOOGLE, "sub-1", "user@example.com", emailVerified, "User")));
+    }
+}
@@ -0,0 +1,47 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.PostgresIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Users written without this instance's knowledge (another instance, plain SQL) are inserted
+ * with JdbcTemplate, which bypasses the filter exactly like a registration elsewhere.
+ */
+class EmailExistenceFilterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EmailExistenceFilter emailExistenceFilter;
+
+    @Test
+    @DisplayName("Sync adds emails registered elsewhere")
+    void syncPicksUpEmailsRegisteredElsewhere() {
+        String email = uniqueEmail("elsewhere");
+        insertUser("Elsewhere", email, "USER");
+        assertThat(emailExistenceFilter.mightExist(email)).isFalse();
+
+        emailExistenceFilter.sync();
+
+        assertThat(emailExistenceFilter.mightExist(email)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Registering an email the filter has not seen yet still answers 409")
+    void registrationOfUnseenEmailConflicts() throws Exception {
+        String email = uniqueEmail("unseen");
+        insertUser("Unseen", email, "USER");
+
+        mockMvc.perform(post("/api/users").with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Second\",\"email\":\"" + email + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("USER_002"));
+    }
+}
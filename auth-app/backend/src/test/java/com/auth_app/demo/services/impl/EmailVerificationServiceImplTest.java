@@ -0,0 +1,73 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.PostgresIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verification links against the real schema. The dispatcher is idle in these tests, so the
+ * raw tokens can be read back from the outbox.
+ */
+class EmailVerificationServiceImplTest extends PostgresIntegrationTest {
+
+    @Test
+    @DisplayName("Changing the email again invalidates the link sent to the previous address")
+    void emailChangeSupersedesEarlierLinks() throws Exception {
+        UUID id = insertUser("Verify User", uniqueEmail("verify"), "USER");
+        String first = uniqueEmail("first");
+        String second = uniqueEmail("second");
+
+        changeEmail(id, first);
+        String firstToken = queuedToken(id);
+        changeEmail(id, second);
+        String secondToken = queuedToken(id);
+
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM email_outbox WHERE user_id = ?", Integer.class, id)).isOne();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM email_verification_tokens WHERE user_id = ?", Integer.class, id)).isOne();
+
+        mockMvc.perform(get("/api/auth/verify-email").param("token", firstToken))
+                .andExpect(status().isBadRequest());
+        assertThat(emailVerified(id)).isFalse();
+
+        mockMvc.perform(get("/api/auth/verify-email").param("token", secondToken))
+                .andExpect(status().isOk());
+        assertThat(emailVerified(id)).isTrue();
+    }
+
+    @Test
+    @DisplayName("A token issued for another address does not verify the current one")
+    void tokenForOtherAddressDoesNotVerify() throws Exception {
+        UUID id = insertUser("Verify User", uniqueEmail("verify"), "USER");
+        changeEmail(id, uniqueEmail("current"));
+        String token = queuedToken(id);
+        // As if the token had survived a later email change
+        jdbc.update("UPDATE email_verification_tokens SET email = ? WHERE user_id = ?", uniqueEmail("old"), id);
+
+        mockMvc.perform(get("/api/auth/verify-email").param("token", token))
+                .andExpect(status().isBadRequest());
+        assertThat(emailVerified(id)).isFalse();
+    }
+
+    private void changeEmail(UUID id, String email) throws Exception {
+        mockMvc.perform(patch("/api/users/{id}", id).with(asAdmin())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private String queuedToken(UUID id) {
+        return jdbc.queryForObject("SELECT verification_token FROM email_outbox WHERE user_id = ?", String.class, id);
+    }
+
+    private boolean emailVerified(UUID id) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT email_verified FROM users WHERE id = ?", Boolean.class, id));
+    }
+}
@@ -0,0 +1,93 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.FlightRecorderProperties;
+import com.auth_app.demo.config.JfrPasswordEncoder;
+import com.auth_app.demo.config.RequestIdFilter;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordingManager recordings;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setDirectory(directory);
+        properties.setSettings("default");
+        properties.setMaxFiles(2);
+        recordings = new FlightRecordingManager(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordings.shutdown();
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("A dump holds the app's events, tagged with the request id")
+    void dumpContainsRequestScopedEvents() throws Exception {
+        PasswordEncoder encoder = new JfrPasswordEncoder(new BCryptPasswordEncoder(4));
+        String hash = encoder.encode("secret");
+
+        recordings.start();
+        MDC.put(RequestIdFilter.MDC_REQUEST_ID_KEY, "req-42");
+        encoder.matches("wrong", hash);
+        MDC.remove(RequestIdFilter.MDC_REQUEST_ID_KEY);
+        Path dump = Path.of(recordings.stop().getLastDump());
+
+        List<RecordedEvent> verifies = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("auth_app.PasswordVerify"))
+                .toList();
+        assertThat(verifies).singleElement().satisfies(event -> {
+            assertThat(event.getString("requestId")).isEqualTo("req-42");
+            assertThat(event.getBoolean("matched")).isFalse();
+            assertThat(event.getDuration()).isPositive();
+        });
+        assertThat(recordings.status().getState()).isEqualTo("NONE");
+    }
+
+    @Test
+    @DisplayName("Only one recording runs at a time, and old dumps are pruned")
+    void singleRecordingAndBoundedDumps() throws Exception {
+        assertThatThrownBy(recordings::dump)
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.JFR_NO_RECORDING));
+
+        assertThat(recordings.start().getState()).isEqualTo("RUNNING");
+        assertThatThrownBy(recordings::start)
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.JFR_RECORDING_RUNNING));
+
+        recordings.dump();
+        recordings.dump();
+        String newest = recordings.dump().getLastDump();
+        assertThat(recordings.status().getState()).isEqualTo("RUNNING");
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(Path::toString).toList()).hasSize(2).contains(newest);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.JwtProperties;
+import com.auth_app.demo.dtos.AccessTokenClaims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for JwtServiceImpl.
+ */
+class JwtServiceImplTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+
+    @Test
+    @DisplayName("Issued tokens round-trip their claims")
+    void roundTrip() {
+        JwtServiceImpl service = new JwtServiceImpl(properties(SECRET, "auth-app"));
+        UUID userId = UUID.randomUUID();
+
+        AccessTokenClaims claims = service.parseAccessToken(
+                service.createAccessToken(userId, "user@example.com", List.of("USER", "ADMIN"))).orElseThrow();
+
+        assertThat(claims.getUserId()).isEqualTo(userId);
+        assertThat(claims.getJti()).isNotNull();
+        assertThat(claims.getEmail()).isEqualTo("user@example.com");
+        assertThat(claims.getRoles()).containsExactly("USER", "ADMIN");
+        assertThat(claims.getExpiresAtEpochSecond() - claims.getIssuedAtEpochMilli() / 1000).isEqualTo(900);
+    }
+
+    @Test
+    @DisplayName("Tokens with a foreign key or issuer, or malformed tokens, are rejected")
+    void rejectsForeignTokens() {
+        JwtServiceImpl service = new JwtServiceImpl(properties(SECRET, "auth-app"));
+        String otherKey = new JwtServiceImpl(properties(SECRET + "-other", "auth-app"))
+                .createAccessToken(UUID.randomUUID(), "user@example.com", List.of());
+        String otherIssuer = new JwtServiceImpl(properties(SECRET, "someone-else"))
+                .createAccessToken(UUID.randomUUID(), "user@example.com", List.of());
+
+        assertThat(service.parseAccessToken(otherKey)).isEmpty();
+        assertThat(service.parseAccessToken(otherIssuer)).isEmpty();
+        assertThat(service.parseAccessToken("not-a-jwt")).isEmpty();
+    }
+
+    private static JwtProperties properties(String secret, String issuer) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        properties.setIssuer(issuer);
+        return properties;
+    }
+}
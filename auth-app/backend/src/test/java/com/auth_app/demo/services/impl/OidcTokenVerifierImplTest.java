@@ -0,0 +1,158 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.OAuth2Properties;
+import com.auth_app.demo.dtos.OidcIdentity;
+import com.auth_app.demo.enums.AuthProvider;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies ID tokens against a local stand-in identity provider serving a JWKS.
+ */
+class OidcTokenVerifierImplTest {
+
+    private static final String ISSUER = "https://idp.test";
+    private static final String CLIENT_ID = "auth-app-client";
+
+    private HttpServer idp;
+    private final List<String> publishedKeys = new ArrayList<>();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private volatile boolean idpDown;
+
+    private JwksCache jwksCache;
+    private OidcTokenVerifierImpl verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        idp = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        idp.createContext("/jwks", exchange -> {
+            jwksRequests.incrementAndGet();
+            byte[] body = ("{\"keys\":[" + String.join(",", publishedKeys) + "]}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(idpDown ? 503 : 200, idpDown ? -1 : body.length);
+            if (!idpDown) {
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        idp.start();
+
+        OAuth2Properties.Provider google = new OAuth2Properties.Provider();
+        google.setIssuer(ISSUER);
+        google.setClientId(CLIENT_ID);
+        google.setJwksUri(URI.create("http://127.0.0.1:" + idp.getAddress().getPort() + "/jwks"));
+        OAuth2Properties properties = new OAuth2Properties();
+        properties.getProviders().put(AuthProvider.GOOGLE, google);
+        properties.setJwksMinRefreshInterval(Duration.ZERO);
+
+        jwksCache = new JwksCache(properties);
+        verifier = new OidcTokenVerifierImpl(properties, jwksCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksCache.shutdown();
+        idp.stop(0);
+    }
+
+    @Test
+    @DisplayName("A token signed by a published key yields the identity")
+    void verifiesSignedToken() {
+        KeyPair key = publish("k1");
+        jwksCache.refresh(AuthProvider.GOOGLE);
+
+        Optional<OidcIdentity> identity = verifier.verify(AuthProvider.GOOGLE, idToken(key, "k1", ISSUER, CLIENT_ID));
+
+        assertThat(identity).hasValueSatisfying(id -> {
+            assertThat(id.getSubject()).isEqualTo("subject-1");
+            assertThat(id.getEmail()).isEqualTo("user@example.com");
+            assertThat(id.isEmailVerified()).isTrue();
+        });
+        assertThat(verifier.supports(AuthProvider.GITHUB)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Wrong audience, wrong issuer and unpublished keys are rejected")
+    void rejectsForeignTokens() {
+        KeyPair key = publish("k1");
+        KeyPair unpublished = Jwts.SIG.RS256.keyPair().build();
+        jwksCache.refresh(AuthProvider.GOOGLE);
+
+        assertThat(verifier.verify(AuthProvider.GOOGLE, idToken(key, "k1", ISSUER, "other-client"))).isEmpty();
+        assertThat(verifier.verify(AuthProvider.GOOGLE, idToken(key, "k1", "https://evil.test", CLIENT_ID))).isEmpty();
+        assertThat(verifier.verify(AuthProvider.GOOGLE, idToken(unpublished, "k1", ISSUER, CLIENT_ID))).isEmpty();
+        assertThat(verifier.verify(AuthProvider.GITHUB, idToken(key, "k1", ISSUER, CLIENT_ID))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A rotated key is rejected without waiting, then accepted once the background fetch lands")
+    void unknownKeyTriggersBackgroundRefresh() throws Exception {
+        publish("k1");
+        jwksCache.refresh(AuthProvider.GOOGLE);
+        KeyPair rotated = publish("k2");
+        String token = idToken(rotated, "k2", ISSUER, CLIENT_ID);
+
+        assertThat(verifier.verify(AuthProvider.GOOGLE, token)).isEmpty();
+
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (verifier.verify(AuthProvider.GOOGLE, token).isEmpty() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertThat(verifier.verify(AuthProvider.GOOGLE, token)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Cached keys keep working while the identity provider is down")
+    void survivesProviderOutage() {
+        KeyPair key = publish("k1");
+        jwksCache.refresh(AuthProvider.GOOGLE);
+        idpDown = true;
+        jwksCache.refresh(AuthProvider.GOOGLE);
+        int requests = jwksRequests.get();
+
+        assertThat(verifier.verify(AuthProvider.GOOGLE, idToken(key, "k1", ISSUER, CLIENT_ID))).isPresent();
+        assertThat(jwksRequests.get()).isEqualTo(requests);
+    }
+
+    private KeyPair publish(String keyId) {
+        KeyPair pair = Jwts.SIG.RS256.keyPair().build();
+        publishedKeys.add(Jwks.json(Jwks.builder().key((RSAPublicKey) pair.getPublic())
+                .id(keyId).build()));
+        return pair;
+    }
+
+    private static String idToken(KeyPair key, String keyId, String issuer, String audience) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .issuer(issuer)
+                .audience().add(audience).and()
+                .subject("subject-1")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(300)))
+                .claim("email", "user@example.com")
+                .claim("email_verified", true)
+                .claim("name", "Test User")
+                .signWith(key.getPrivate())
+                .compact();
+    }
+}
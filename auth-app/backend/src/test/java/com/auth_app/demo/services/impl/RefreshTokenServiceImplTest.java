@@ -0,0 +1,190 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.common.OpaqueTokens;
+import com.auth_app.demo.config.JwtProperties;
+import com.auth_app.demo.config.RefreshTokenProperties;
+import com.auth_app.demo.dtos.RotatedRefreshTokenDto;
+import com.auth_app.demo.entities.RefreshToken;
+import com.auth_app.demo.exceptions.BusinessException;
+import com.auth_app.demo.exceptions.ErrorCode;
+import com.auth_app.demo.repositories.RefreshTokenRepository;
+import com.auth_app.demo.services.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RefreshTokenServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private RefreshTokenServiceImpl service;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID familyId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        RefreshTokenProperties properties = new RefreshTokenProperties();
+        properties.setPurgeBatchSize(100);
+        service = new RefreshTokenServiceImpl(refreshTokenRepository, tokenRevocationService,
+                new JwtProperties(), properties, new NoOpTransactionManager());
+    }
+
+    @Test
+    @DisplayName("Rotation is one statement keyed by the hash and returns a different token")
+    void rotateIssuesSuccessor() {
+        String raw = OpaqueTokens.generate();
+        when(refreshTokenRepository.rotate(eq(OpaqueTokens.hash(raw)), any(), anyString(), any(), any()))
+                .thenReturn(Optional.of(rotated("USER,ADMIN")));
+
+        RotatedRefreshTokenDto result = service.rotate(raw);
+
+        assertThat(result.getRefreshToken()).isNotEqualTo(raw).hasSize(43);
+        assertThat(result.getFamilyId()).isEqualTo(familyId);
+        assertThat(result.getRoles()).containsExactly("USER", "ADMIN");
+        verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    @DisplayName("Replaying a consumed token revokes its family and all of the user's tokens")
+    void reuseRevokesFamily() {
+        String raw = OpaqueTokens.generate();
+        when(refreshTokenRepository.rotate(anyString(), any(), anyString(), any(), any())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(OpaqueTokens.hash(raw)))
+                .thenReturn(Optional.of(stored(Instant.now())));
+
+        assertThatThrownBy(() -> service.rotate(raw))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.AUTH_REFRESH_TOKEN_REUSED);
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any());
+        verify(tokenRevocationService).revokeAllForUser(userId);
+    }
+
+    @Test
+    @DisplayName("Unknown or expired tokens are rejected without revoking anything")
+    void unknownTokenIsInvalid() {
+        when(refreshTokenRepository.rotate(anyString(), any(), anyString(), any(), any())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.rotate("unknown"))
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.AUTH_REFRESH_TOKEN_INVALID);
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        verify(tokenRevocationService, never()).revokeAllForUser(any());
+    }
+
+    @Test
+    @DisplayName("A family issued before a logout-everywhere cannot be rotated")
+    void watermarkRevokesFamily() {
+        when(refreshTokenRepository.rotate(anyString(), any(), anyString(), any(), any()))
+                .thenReturn(Optional.of(rotated("USER")));
+        when(tokenRevocationService.isRevoked(eq(userId), isNull(), anyLong())).thenReturn(true);
+
+        assertThatThrownBy(() -> service.rotate(OpaqueTokens.generate()))
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.AUTH_REFRESH_TOKEN_INVALID);
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any());
+    }
+
+    @Test
+    @DisplayName("Purge deletes in chunks until a chunk comes back short")
+    void purgeRunsInChunks() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(100, 100, 7);
+
+        service.purgeExpired();
+
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(), eq(100));
+    }
+
+    private RefreshToken stored(Instant usedAt) {
+        return RefreshToken.builder()
+                .tokenHash("hash")
+                .userId(userId)
+                .familyId(familyId)
+                .createdAt(Instant.now().minusSeconds(60))
+                .expiresAt(Instant.now().plusSeconds(600))
+                .usedAt(usedAt)
+                .build();
+    }
+
+    private RefreshTokenRepository.Rotated rotated(String roles) {
+        return new RefreshTokenRepository.Rotated() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public UUID getFamilyId() {
+                return familyId;
+            }
+
+            @Override
+            public String getEmail() {
+                return "user@example.com";
+            }
+
+            @Override
+            public String getRoles() {
+                return roles;
+            }
+
+            @Override
+            public long getPreviousIssuedAt() {
+                return Instant.now().getEpochSecond() - 60;
+            }
+        };
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
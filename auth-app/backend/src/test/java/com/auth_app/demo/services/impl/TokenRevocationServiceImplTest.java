@@ -0,0 +1,178 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.RevocationProperties;
+import com.auth_app.demo.entities.RevokedToken;
+import com.auth_app.demo.entities.UserTokenWatermark;
+import com.auth_app.demo.repositories.RevokedTokenRepository;
+import com.auth_app.demo.repositories.UserTokenWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TokenRevocationServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private UserTokenWatermarkRepository watermarkRepository;
+
+    private TokenRevocationServiceImpl service;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationServiceImpl(revokedTokenRepository, watermarkRepository, new RevocationProperties());
+    }
+
+    @Test
+    @DisplayName("Watermark revokes tokens issued up to now but not later ones")
+    void watermarkRevokesOlderTokens() {
+        long issuedBefore = Instant.now().minusSeconds(60).toEpochMilli();
+
+        service.revokeAllForUser(userId);
+
+        assertThat(service.isRevoked(userId, UUID.randomUUID(), issuedBefore)).isTrue();
+        assertThat(service.isRevoked(userId, UUID.randomUUID(), Instant.now().plusSeconds(5).toEpochMilli())).isFalse();
+        assertThat(service.isRevoked(UUID.randomUUID(), UUID.randomUUID(), issuedBefore)).isFalse();
+        verify(watermarkRepository).upsert(eq(userId), any(), any());
+    }
+
+    @Test
+    @DisplayName("A token issued later within the same second as the watermark stays valid")
+    void watermarkComparesMilliseconds() throws InterruptedException {
+        service.revokeAllForUser(userId);
+        Thread.sleep(2);
+        long issuedAfter = Instant.now().toEpochMilli();
+
+        assertThat(service.isRevoked(userId, UUID.randomUUID(), issuedAfter)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Memory reflects a revocation only once its transaction commits")
+    void revocationAppliesAfterCommit() {
+        UUID jti = UUID.randomUUID();
+        long issuedBefore = Instant.now().minusSeconds(60).toEpochMilli();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revokeAllForUser(userId);
+            service.revokeToken(jti, userId, Instant.now().plusSeconds(600));
+
+            assertThat(service.isRevoked(userId, jti, issuedBefore)).isFalse();
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(service.isRevoked(userId, null, issuedBefore)).isTrue();
+        assertThat(service.isRevoked(UUID.randomUUID(), jti, Instant.now().toEpochMilli())).isTrue();
+    }
+
+    @Test
+    @DisplayName("A rolled-back revocation never reaches memory")
+    void rolledBackRevocationIsIgnored() {
+        long issuedBefore = Instant.now().minusSeconds(60).toEpochMilli();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revokeAllForUser(userId);
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(service.isRevoked(userId, null, issuedBefore)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Single-token revocation only affects that jti")
+    void jtiRevocation() {
+        UUID jti = UUID.randomUUID();
+        long now = Instant.now().toEpochMilli();
+
+        service.revokeToken(jti, userId, Instant.now().plusSeconds(600));
+
+        assertThat(service.isRevoked(userId, jti, now)).isTrue();
+        assertThat(service.isRevoked(userId, UUID.randomUUID(), now)).isFalse();
+        assertThat(service.isRevoked(userId, null, now)).isFalse();
+    }
+
+    @Test
+    @DisplayName("State persisted by an earlier run or another instance is loaded")
+    void loadsPersistedState() {
+        UUID jti = UUID.randomUUID();
+        Instant now = Instant.now();
+        when(revokedTokenRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(new RevokedToken(jti, userId, now.plusSeconds(600), now)));
+        when(watermarkRepository.findByNotBeforeAfter(any()))
+                .thenReturn(List.of(new UserTokenWatermark(userId, now, now)));
+
+        service.load();
+
+        assertThat(service.isRevoked(UUID.randomUUID(), jti, now.toEpochMilli() + 10)).isTrue();
+        assertThat(service.isRevoked(userId, null, now.toEpochMilli() - 10)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Pruning drops expired deny-list entries and stale watermarks")
+    void pruneRemovesExpiredEntries() {
+        UUID expired = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        long now = Instant.now().toEpochMilli();
+        service.revokeToken(expired, userId, Instant.now().minusSeconds(1));
+        service.revokeToken(live, userId, Instant.now().plusSeconds(600));
+
+        service.prune();
+
+        assertThat(service.isRevoked(userId, expired, now)).isFalse();
+        assertThat(service.isRevoked(userId, live, now)).isTrue();
+        verify(revokedTokenRepository).deleteExpired(any());
+        verify(watermarkRepository).deleteOlderThan(any());
+    }
+
+    @Test
+    @DisplayName("The per-request check does not allocate")
+    void checkIsAllocationFree() {
+        UUID jti = UUID.randomUUID();
+        long iat = Instant.now().plus(Duration.ofMinutes(1)).toEpochMilli();
+        service.revokeAllForUser(userId);
+        service.revokeToken(UUID.randomUUID(), userId, Instant.now().plusSeconds(600));
+        for (int i = 0; i < 100_000; i++) {
+            service.isRevoked(userId, jti, iat);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        boolean revoked = false;
+        for (int i = 0; i < 1_000_000; i++) {
+            revoked |= service.isRevoked(userId, jti, iat);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(revoked).isFalse();
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+}
@@ -0,0 +1,150 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.UserReadCoalescingProperties;
+import com.auth_app.demo.dtos.UserResDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserReadCoalescerTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final UserReadCoalescer coalescer = new UserReadCoalescer(new UserReadCoalescingProperties());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        coalescer.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Callers sharing a load each get their own copy with an unmodifiable role set")
+    void waitersGetOwnCopies() throws Exception {
+        Future<Optional<UserResDto>> loader = read();
+        await(started);
+        Future<Optional<UserResDto>> waiter = read();
+        waitForWaiter();
+        release.countDown();
+
+        UserResDto loaded = loader.get(10, TimeUnit.SECONDS).orElseThrow();
+        UserResDto shared = waiter.get(10, TimeUnit.SECONDS).orElseThrow();
+        assertThat(loads).hasValue(1);
+        assertThat(shared).isNotSameAs(loaded);
+        loaded.setName("Changed by one caller");
+        assertThat(shared.getName()).isEqualTo("Loaded User");
+        assertThatThrownBy(() -> shared.getRoles().add("ADMIN")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("After a write, new reads load afresh instead of joining the earlier load")
+    void writeDetachesLoadInFlight() throws Exception {
+        Future<Optional<UserResDto>> before = read();
+        await(started);
+
+        coalescer.invalidateAfterCommit();
+        Optional<UserResDto> after = coalescer.byId(ID, () -> {
+            loads.incrementAndGet();
+            return Optional.of(user());
+        });
+        release.countDown();
+
+        assertThat(after).isPresent();
+        assertThat(before.get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the load in flight is detached only once it commits")
+    void invalidationWaitsForCommit() throws Exception {
+        Future<Optional<UserResDto>> before = read();
+        await(started);
+        TransactionSynchronizationManager.initSynchronization();
+
+        coalescer.invalidateAfterCommit();
+        Future<Optional<UserResDto>> uncommitted = read();
+        waitForWaiter();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Optional<UserResDto> committed = coalescer.byId(ID, () -> {
+            loads.incrementAndGet();
+            return Optional.of(user());
+        });
+        release.countDown();
+
+        assertThat(before.get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(uncommitted.get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(committed).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    private Future<Optional<UserResDto>> read() {
+        Supplier<Optional<UserResDto>> loader = () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return Optional.of(user());
+        };
+        return executor.submit(() -> coalescer.byId(ID, loader));
+    }
+
+    private void waitForWaiter() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescedReads() < 1) {
+            assertThat(System.nanoTime()).as("no read joined the load in time").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private double coalescedReads() {
+        return registry.get("users.reads.coalesced").tag("key", "id").functionCounter().count();
+    }
+
+    private static UserResDto user() {
+        return UserResDto.builder()
+                .id(ID)
+                .name("Loaded User")
+                .roles(new HashSet<>(Set.of("USER")))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.EmailFilterProperties;
+import com.auth_app.demo.config.EmailVerificationProperties;
+import com.auth_app.demo.config.RevocationProperties;
+import com.auth_app.demo.config.UserReadCoalescingProperties;
+import com.auth_app.demo.entities.Role;
+import com.auth_app.demo.entities.User;
+import com.auth_app.demo.repositories.RoleRepository;
+import com.auth_app.demo.repositories.UserRepository;
+import com.auth_app.demo.services.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that changing role membership never materializes the members of a role.
+ * The USER role is seeded with 100k members; granting or revoking it for one more user
+ * must stay within a handful of entity loads, statements and allocated bytes.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:role-membership;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserServiceImpl.class, EmailExistenceFilter.class, EmailFilterProperties.class,
+        TokenRevocationServiceImpl.class, RevocationProperties.class,
+        EmailVerificationServiceImpl.class, EmailVerificationProperties.class,
+        UserReadCoalescer.class, UserReadCoalescingProperties.class, UserRoleMembershipTest.Config.class})
+class UserRoleMembershipTest {
+
+    private static final int MEMBER_COUNT = 100_000;
+    private static final long MAX_ALLOCATED_BYTES = 32L * 1024 * 1024;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID targetUserId;
+
+    @BeforeEach
+    void setUp() {
+        Role userRole = roleRepository.save(new Role("USER"));
+        User target = userRepository.save(User.builder()
+                .name("Target")
+                .email("target@example.com")
+                .build());
+        entityManager.flush();
+        targetUserId = target.getId();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO users (id, name, email, email_verified, is_active, provider, created_at, updated_at)
+                SELECT RANDOM_UUID(), 'Member ' || "X", 'member' || "X" || '@example.com', FALSE, TRUE, 'LOCAL',
+                       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, MEMBER_COUNT);
+        jdbc.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users WHERE id <> ?",
+                userRole.getId(), targetUserId);
+
+        entityManager.clear();
+        // Warm up mapping and query plans so the measurements below only see the operation itself
+        userService.getUserById(targetUserId);
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    @DisplayName("Granting and revoking a role with 100k members through the service stays bounded")
+    void serviceRoleChangesDoNotLoadMembers() {
+        long allocatedBefore = allocatedBytes();
+
+        userService.addRoleToUser(targetUserId, "USER");
+        assertThat(userService.getUserById(targetUserId).orElseThrow().getRoles()).containsExactly("USER");
+        userService.removeRoleFromUser(targetUserId, "USER");
+        entityManager.flush();
+
+        long allocated = allocatedBytes() - allocatedBefore;
+        Statistics stats = statistics();
+
+        assertThat(stats.getEntityLoadCount()).isLessThanOrEqualTo(6);
+        assertThat(stats.getCollectionFetchCount()).isLessThanOrEqualTo(3);
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+        assertThat(allocated).isLessThan(MAX_ALLOCATED_BYTES);
+    }
+
+    @Test
+    @DisplayName("Mutating the owning side on the entity never initializes the role's members")
+    void entityRoleChangesDoNotLoadMembers() {
+        long allocatedBefore = allocatedBytes();
+
+        User user = userRepository.findById(targetUserId).orElseThrow();
+        Role role = roleRepository.findByName("USER").orElseThrow();
+        user.addRole(role);
+        entityManager.flush();
+        user.removeRole(role);
+        entityManager.flush();
+
+        long allocated = allocatedBytes() - allocatedBefore;
+        Statistics stats = statistics();
+
+        assertThat(stats.getEntityLoadCount()).isLessThanOrEqualTo(2);
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(allocated).isLessThan(MAX_ALLOCATED_BYTES);
+        assertThat(userRepository.count()).isEqualTo(MEMBER_COUNT + 1L);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,237 @@
+package com.auth_app.demo.services.impl;
+
+import com.auth_app.demo.config.EmailVerificationProperties;
+import com.auth_app.demo.config.RevocationProperties;
+import com.auth_app.demo.config.SchedulingConfig;
+import com.auth_app.demo.entities.OutboxEmail;
+import com.auth_app.demo.repositories.OutboxEmailRepository;
+import com.auth_app.demo.repositories.RevokedTokenRepository;
+import com.auth_app.demo.repositories.UserTokenWatermarkRepository;
+import com.auth_app.demo.services.VerificationMailSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for VerificationEmailDispatcher, delivering through a recording stub sender.
+ */
+@ExtendWith(MockitoExtension.class)
+class VerificationEmailDispatcherTest {
+
+    @Mock
+    private OutboxEmailRepository outboxRepository;
+
+    private final RecordingMailSender mailSender = new RecordingMailSender();
+    private final EmailVerificationProperties properties = new EmailVerificationProperties();
+    private VerificationEmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setMaxAttempts(3);
+        properties.setLinkPrefix("https://app.test/verify?token=");
+        dispatcher = new VerificationEmailDispatcher(outboxRepository, mailSender, properties, new NoOpTransactionManager());
+    }
+
+    @Test
+    @DisplayName("Delivered emails are deleted; full batches are followed by another claim")
+    void deliversAndDrains() {
+        OutboxEmail first = email("a@example.com");
+        OutboxEmail second = email("b@example.com");
+        OutboxEmail third = email("c@example.com");
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(first, second), List.of(third));
+
+        dispatcher.drain();
+
+        assertThat(mailSender.sent).containsExactly(
+                "a@example.com https://app.test/verify?token=token-a@example.com",
+                "b@example.com https://app.test/verify?token=token-b@example.com",
+                "c@example.com https://app.test/verify?token=token-c@example.com");
+        verify(outboxRepository).deleteById(first.getId());
+        verify(outboxRepository).deleteById(third.getId());
+    }
+
+    @Test
+    @DisplayName("Emails are leased for the configured time and sent outside the claiming transaction")
+    void sendsAfterLeaseCommits() {
+        properties.setLease(Duration.ofMinutes(3));
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(email("a@example.com")));
+
+        dispatcher.drain();
+
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> leaseUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository).claimDue(now.capture(), leaseUntil.capture(), eq(2));
+        assertThat(Duration.between(now.getValue(), leaseUntil.getValue())).isEqualTo(Duration.ofMinutes(3));
+        assertThat(mailSender.sentInTransaction).isFalse();
+    }
+
+    @Test
+    @DisplayName("A failed delivery is rescheduled with backoff and marked failed after the last attempt")
+    void retriesThenGivesUp() {
+        OutboxEmail email = email("down@example.com");
+        mailSender.failing = true;
+        // The claim statement counts the attempt
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenAnswer(invocation -> {
+            email.setAttempts(email.getAttempts() + 1);
+            return List.of(email);
+        });
+        when(outboxRepository.findById(email.getId())).thenReturn(Optional.of(email));
+        Instant before = Instant.now();
+
+        dispatcher.drain();
+
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getAvailableAt()).isAfterOrEqualTo(before.plus(properties.getRetryBackoff()));
+        assertThat(email.getLastError()).contains("SMTP unavailable");
+        assertThat(email.getFailedAt()).isNull();
+
+        dispatcher.drain();
+        dispatcher.drain();
+
+        assertThat(email.getFailedAt()).isNotNull();
+        assertThat(email.getVerificationToken()).isNull();
+        verify(outboxRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("A failure for an email deleted meanwhile is ignored")
+    void failureOfSupersededEmailIsIgnored() {
+        OutboxEmail email = email("gone@example.com");
+        mailSender.failing = true;
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(email));
+        when(outboxRepository.findById(email.getId())).thenReturn(Optional.empty());
+
+        dispatcher.drain();
+
+        assertThat(email.getLastError()).isNull();
+    }
+
+    @Test
+    @DisplayName("Backoff doubles per attempt up to the cap")
+    void backoffIsCapped() {
+        properties.setRetryBackoff(Duration.ofSeconds(30));
+        properties.setMaxRetryBackoff(Duration.ofMinutes(2));
+
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(120));
+        assertThat(dispatcher.backoff(20)).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    @DisplayName("Revocation sync keeps running on the scheduler while a send is blocked")
+    void blockedSendDoesNotStallRevocationSync() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        VerificationMailSender blockingSender = (recipient, link) -> {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        when(outboxRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(email("slow@example.com")), List.of());
+        UserTokenWatermarkRepository watermarkRepository = mock(UserTokenWatermarkRepository.class);
+
+        // No TaskScheduler bean: every @Scheduled job shares one scheduler thread
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                    "app.email-verification.poll-interval", "PT0.02S",
+                    "app.security.revocation.sync-interval", "PT0.02S")));
+            context.register(SchedulingConfig.class);
+            context.registerBean(VerificationEmailDispatcher.class, () -> new VerificationEmailDispatcher(
+                    outboxRepository, blockingSender, properties, new NoOpTransactionManager()));
+            context.registerBean(TokenRevocationServiceImpl.class, () -> new TokenRevocationServiceImpl(
+                    mock(RevokedTokenRepository.class), watermarkRepository, new RevocationProperties()));
+            context.refresh();
+            try {
+                assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+                clearInvocations(watermarkRepository);
+
+                verify(watermarkRepository, timeout(5000).atLeast(3)).findByUpdatedAtAfter(any());
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    private static OutboxEmail email(String recipient) {
+        return OutboxEmail.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .recipient(recipient)
+                .verificationToken("token-" + recipient)
+                .availableAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static class RecordingMailSender implements VerificationMailSender {
+
+        private final List<String> sent = new ArrayList<>();
+        private boolean failing;
+        private boolean sentInTransaction;
+
+        @Override
+        public void sendVerificationEmail(String recipient, String verificationLink) {
+            sentInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            if (failing) {
+                throw new IllegalStateException("SMTP unavailable");
+            }
+            sent.add(recipient + " " + verificationLink);
+        }
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}